@@ -0,0 +1,32 @@
+package com.noydb.duhmap.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar. Runs
+ * every benchmark (or those matching the
+ * regular expressions given as arguments)
+ * with the GC profiler attached so that
+ * bytes allocated per operation are
+ * reported next to throughput & latency.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+        // do not instantiate
+    }
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        final var options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,46 @@
+package com.noydb.duhmap.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The mapper a developer would write by hand
+ * without duhmap. Acts as the baseline the
+ * generated {@link StudentMapper} is measured
+ * against.
+ */
+public final class HandWrittenStudentMapper implements StudentMapper {
+
+    @Override
+    public Student mapTo(final StudentDTO source) {
+        if (source == null) return null;
+
+        final var target = new Student();
+        target.setFirstName(source.getFirstName());
+        target.setLastName(source.getLastName());
+        target.setAge(source.getAge());
+
+        return target;
+    }
+
+    @Override
+    public StudentDTO mapFrom(final Student source) {
+        if (source == null) return null;
+
+        final var target = new StudentDTO();
+        target.setFirstName(source.getFirstName());
+        target.setLastName(source.getLastName());
+        target.setAge(source.getAge());
+
+        return target;
+    }
+
+    public List<StudentDTO> mapFrom(final List<Student> sources) {
+        final var targets = new ArrayList<StudentDTO>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            targets.add(mapFrom(sources.get(i)));
+        }
+
+        return targets;
+    }
+}
@@ -0,0 +1,62 @@
+package com.noydb.duhmap.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the generated list methods
+ * against the hand-written baseline
+ * across increasing list sizes.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ListMappingBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+
+    private final DuhStudentMapper generated = new DuhStudentMapper();
+    private final HandWrittenStudentMapper handWritten = new HandWrittenStudentMapper();
+
+    private List<Student> students;
+
+    @Setup
+    public void setUp() {
+        students = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            students.add(new Student("first" + i, "last" + i, i % 100));
+        }
+    }
+
+    @Benchmark
+    public List<StudentDTO> generatedMapList() {
+        return generated.mapFrom(students);
+    }
+
+    @Benchmark
+    public List<StudentDTO> generatedMapListParallel() {
+        return generated.mapFromParallel(students);
+    }
+
+    @Benchmark
+    public List<StudentDTO> handWrittenMapList() {
+        return handWritten.mapFrom(students);
+    }
+}
@@ -0,0 +1,70 @@
+package com.noydb.duhmap.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the generated single object
+ * methods (instance & static) against
+ * the hand-written baseline.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Thread)
+public class SingleObjectMappingBenchmark {
+
+    private final DuhStudentMapper generated = new DuhStudentMapper();
+    private final HandWrittenStudentMapper handWritten = new HandWrittenStudentMapper();
+
+    private Student student;
+    private StudentDTO dto;
+
+    @Setup
+    public void setUp() {
+        student = new Student("Jim", "Jones", 12);
+        dto = new StudentDTO("Chris", "Smith", 102);
+    }
+
+    @Benchmark
+    public Student generatedMapTo() {
+        return generated.mapTo(dto);
+    }
+
+    @Benchmark
+    public StudentDTO generatedMapFrom() {
+        return generated.mapFrom(student);
+    }
+
+    @Benchmark
+    public Student generatedStaticMapTo() {
+        return DuhStaticStudentMapper.mapTo(dto);
+    }
+
+    @Benchmark
+    public StudentDTO generatedStaticMapFrom() {
+        return DuhStaticStudentMapper.mapFrom(student);
+    }
+
+    @Benchmark
+    public Student handWrittenMapTo() {
+        return handWritten.mapTo(dto);
+    }
+
+    @Benchmark
+    public StudentDTO handWrittenMapFrom() {
+        return handWritten.mapFrom(student);
+    }
+}
@@ -0,0 +1,16 @@
+package com.noydb.duhmap.benchmark;
+
+import com.noydb.duhmap.annotation.DuhMap;
+import com.noydb.duhmap.annotation.DuhMapMethod;
+import com.noydb.duhmap.kit.DuhMapClassType;
+
+@DuhMap(strictChecks = true, beanType = DuhMapClassType.STATIC)
+public interface StaticStudentMapper {
+
+    @DuhMapMethod(mapList = true)
+    Student mapTo(StudentDTO dto);
+
+    @DuhMapMethod(mapList = true)
+    StudentDTO mapFrom(Student student);
+
+}
@@ -0,0 +1,15 @@
+package com.noydb.duhmap.benchmark;
+
+import com.noydb.duhmap.annotation.DuhMap;
+import com.noydb.duhmap.annotation.DuhMapMethod;
+
+@DuhMap(strictChecks = true)
+public interface StudentMapper {
+
+    @DuhMapMethod(mapList = true)
+    Student mapTo(StudentDTO dto);
+
+    @DuhMapMethod(mapList = true, parallelThreshold = 8192)
+    StudentDTO mapFrom(Student student);
+
+}
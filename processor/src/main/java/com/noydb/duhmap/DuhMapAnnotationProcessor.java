@@ -1,45 +1,70 @@
 package com.noydb.duhmap;
 
-import com.noydb.duhmap.annotation.DuhMap;
-import com.noydb.duhmap.annotation.DuhMapMethod;
 import com.noydb.duhmap.error.DuhMapException;
 import com.noydb.duhmap.kit.DuhMapAnnotationValidator;
-import com.noydb.duhmap.kit.DuhMapProcessorUtils;
-import com.noydb.duhmap.kit.DuhMapTemplates;
+import com.noydb.duhmap.kit.DuhMapClassType;
+import com.noydb.duhmap.kit.DuhMapCodecs;
+import com.noydb.duhmap.kit.DuhMapCollectionMethods;
+import com.noydb.duhmap.kit.DuhMapCollectionType;
+import com.noydb.duhmap.kit.DuhMapProbe;
+import com.noydb.duhmap.kit.DuhMapSourceWriter;
+import com.noydb.duhmap.model.DuhMapInterfaceModel;
+import com.noydb.duhmap.model.DuhMapMethodModel;
+import com.noydb.duhmap.model.DuhMapModelFactory;
 
 import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.Filer;
-import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.RoundEnvironment;
 import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
 import javax.annotation.processing.SupportedSourceVersion;
 import javax.lang.model.SourceVersion;
-import javax.lang.model.element.Element;
-import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
-import javax.tools.FileObject;
-import javax.tools.StandardLocation;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.Writer;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import static com.noydb.duhmap.kit.DuhMapNestedMappers.getGeneratedClassName;
+import static com.noydb.duhmap.kit.DuhMapNestedMappers.getReferenceName;
+import static com.noydb.duhmap.kit.DuhMapNestedMappers.isStatic;
 import static com.noydb.duhmap.kit.DuhMapProcessorUtils.DUH_MAP_VERSION;
-import static com.noydb.duhmap.kit.DuhMapProcessorUtils.asTypeElement;
+import static com.noydb.duhmap.kit.DuhMapProcessorUtils.capitalize;
+import static com.noydb.duhmap.kit.DuhMapProcessorUtils.getConstantName;
 import static com.noydb.duhmap.kit.DuhMapProcessorUtils.getFullyQualifiedName;
 import static com.noydb.duhmap.kit.DuhMapProcessorUtils.getName;
-import static com.noydb.duhmap.kit.DuhMapTemplates.getMethodSignature;
-import static com.noydb.duhmap.kit.DuhMapTemplates.getTemplate;
 
 @SupportedAnnotationTypes({
         "com.noydb.duhmap.annotation.DuhMap",
         "com.noydb.duhmap.annotation.DuhMapMethod"
 })
+@SupportedOptions(DuhMapAnnotationProcessor.REPRODUCIBLE_OPTION)
 @SupportedSourceVersion(SourceVersion.RELEASE_17)
 public final class DuhMapAnnotationProcessor extends AbstractProcessor {
 
+    /**
+     * {@code -Aduhmap.reproducible=true} makes the output
+     * depend on the annotated sources only, so that it
+     * is stable for build caches.
+     */
+    public static final String REPRODUCIBLE_OPTION = "duhmap.reproducible";
+
+    private static final String GENERATED = "javax.annotation.processing.Generated";
+    private static final String COMPONENT = "org.springframework.stereotype.Component";
+    private static final String METRICS = "com.noydb.duhmap.metrics.DuhMapMetrics";
+    private static final String METHOD_METRICS = "com.noydb.duhmap.metrics.DuhMapMethodMetrics";
+    private static final String PARALLEL = "PARALLEL";
+    private static final String ASYNC = "ASYNC";
+
     @Override
     public boolean process(
             final Set<? extends TypeElement> annotations,
@@ -47,179 +72,887 @@ public final class DuhMapAnnotationProcessor extends AbstractProcessor {
     ) {
         DuhMapAnnotationValidator.run(roundEnv, processingEnv);
 
-        for (final Element el : roundEnv.getElementsAnnotatedWith(DuhMap.class)) {
-            final var interfaceEl = (TypeElement) el;
-            final var annotation = interfaceEl.getAnnotation(DuhMap.class);
-            final var name = getName(interfaceEl);
-            final var packageName = DuhMapProcessorUtils.getPackageName(interfaceEl);
-            final var outputClassName = "Duh" + name;
-
-            final var builder = new StringBuilder();
-            builder.append(
-                    String.format(
-                            getTemplate(annotation),
-                            packageName,
-                            DuhMapTemplates.getGeneratedAnnotation(DUH_MAP_VERSION),
-                            outputClassName,
-                            name
-                    )
-            );
+        // built once per round, then shared by
+        // the field rules & the generation below
+        final var models = new DuhMapModelFactory(processingEnv).create(roundEnv);
+        DuhMapAnnotationValidator.run(models, processingEnv);
+
+        for (final var model : models) {
+            writeToFile(model);
+        }
+
+        return true;
+    }
+
+    // the interface is passed as the originating
+    // element, allowing build tools to regenerate
+    // only the mappers whose interface changed
+    private void writeToFile(final DuhMapInterfaceModel model) {
+        final Filer filer = processingEnv.getFiler();
+        final var className = model.getPackageName() + "." + model.getOutputClassName();
 
-            final var ignoredMethods = Arrays.asList(
-                    interfaceEl.getAnnotation(DuhMap.class).ignoredMethods()
+        try (final var out = new DuhMapSourceWriter(
+                new BufferedWriter(filer.createSourceFile(className, model.getInterfaceEl()).openWriter()),
+                model.getPackageName()
+        )) {
+            writeClass(out, model);
+        } catch (final IOException | UncheckedIOException e) {
+            throw new DuhMapException(
+                    String.format("Error during writing of DuhMap file to source output for class: %s", className),
+                    e
             );
-            for (final var method : interfaceEl.getEnclosedElements()) {
-                if (ignoredMethods.contains(getName(method))) {
-                    continue;
+        }
+    }
+
+    private boolean isReproducible() {
+        return Boolean.parseBoolean(processingEnv.getOptions().get(REPRODUCIBLE_OPTION));
+    }
+
+    // the imports come first in the file, so every
+    // type the class refers to is collected upfront
+    private void registerImports(final DuhMapSourceWriter out, final DuhMapInterfaceModel model) {
+        out.reserve(model.getOutputClassName());
+        out.reserve(model.getName());
+        out.addImport(GENERATED);
+        if (model.getAnnotation().beanType() == DuhMapClassType.SPRING_BEAN) {
+            out.addImport(COMPONENT);
+        }
+        if (model.getAnnotation().metrics()) {
+            out.addImport(METRICS);
+            out.addImport(METHOD_METRICS);
+        }
+        if (model.getAnnotation().events()) {
+            out.addImport(DuhMapProbe.EVENT);
+        }
+
+        for (final var method : model.getMethods()) {
+            if (isParallel(method)) {
+                out.reserve(getTaskName(method));
+            }
+            if (isProjection(method)) {
+                out.reserve(getFieldsName(method));
+            }
+            if (method.getCollectionTypes().contains(DuhMapCollectionType.PUBLISHER)) {
+                out.reserve(DuhMapCollectionMethods.getProcessorName(method.getName()));
+            }
+            if (method.getColumns() != null) {
+                out.reserve(getColumnsName(method));
+            }
+            // type parameters of the map methods
+            if (method.getCollectionTypes().contains(DuhMapCollectionType.MAP)) {
+                out.reserve("K");
+                out.reserve("R");
+            }
+        }
+
+        for (final var method : model.getMethods()) {
+            out.addImport(getFullyQualifiedName(method.getSourceClassEl()));
+            out.addImport(getFullyQualifiedName(method.getTargetClassEl()));
+        }
+
+        for (final var usedEl : getInstanceMappers(model)) {
+            out.addImport(isInjected(model) ? getFullyQualifiedName(usedEl) : getGeneratedClassName(usedEl));
+        }
+
+        for (final var method : model.getMethods()) {
+            if (method.isIgnored()) {
+                continue;
+            }
+
+            method.getCollectionTypes().forEach(type -> DuhMapCollectionMethods.getImports(type).forEach(out::addImport));
+            if (isParallel(method)) {
+                DuhMapCollectionMethods.getParallelImports().forEach(out::addImport);
+            }
+            if (isAsync(method)) {
+                DuhMapCollectionMethods.getAsyncImports().forEach(out::addImport);
+            }
+            if (isMapInto(method)) {
+                DuhMapCollectionMethods.getMapIntoImports().forEach(out::addImport);
+            }
+        }
+
+        for (final var method : model.getMethods()) {
+            if (method.getColumns() == null) {
+                continue;
+            }
+
+            out.addImport("java.util.List");
+            out.addImport("java.util.ArrayList");
+            out.addImport("java.util.Objects");
+            for (final var column : method.getColumns()) {
+                if (isPlainDeclaredType(column.getType())) {
+                    out.addImport(column.getType().toString());
                 }
+            }
+        }
 
-                mapMethod(builder, method, ignoredMethods);
+        final var codecs = getCodecMethods(model);
+        if (!codecs.isEmpty()) {
+            DuhMapCodecs.getImports(hasStrings(codecs)).forEach(out::addImport);
+        }
+
+        // e.g. converters, referenced by the
+        // values the model already built
+        for (final var method : model.getMethods()) {
+            for (final var field : method.getFields()) {
+                out.addImports(field.getValue());
+                out.addImports(field.getPatchValue());
+                out.addImports(field.getPatchCheck());
+                out.addImports(field.getPatchStatement());
             }
+        }
+    }
 
-            builder.append("}");
+    private void writeClass(final DuhMapSourceWriter out, final DuhMapInterfaceModel model) {
+        registerImports(out, model);
+        out.header();
+        writeGeneratedAnnotation(out);
 
-            writeToFile(processingEnv, packageName, outputClassName, builder.toString());
+        final var className = model.getOutputClassName();
+        switch (model.getAnnotation().beanType()) {
+            case SPRING_BEAN -> out.line("@" + out.type(COMPONENT))
+                    .open(String.format("public class %s implements %s", className, model.getName()))
+                    .line();
+            // a utility class, its methods are
+            // called without an instance
+            case STATIC -> out.open(String.format("public final class %s", className))
+                    .line()
+                    .open(String.format("private %s()", className))
+                    .line("// do not instantiate")
+                    .end()
+                    .line();
+            default -> out.open(String.format("public final class %s implements %s", className, model.getName()))
+                    .line();
         }
 
-        return true;
+        writeUsedMapperFields(out, model);
+        writeMetricsFields(out, model);
+        if (model.getMethods().stream().anyMatch(DuhMapAnnotationProcessor::isAsync)) {
+            DuhMapCollectionMethods.writeAsyncExecutor(out);
+        }
+
+        for (final var method : model.getMethods()) {
+            writeMethod(out, model, method);
+        }
+
+        final var codecs = getCodecMethods(model);
+        for (final var method : codecs) {
+            writeCodec(out, method, isStatic(model.getInterfaceEl()));
+        }
+        if (hasStrings(codecs)) {
+            DuhMapCodecs.writeStringMethods(out);
+        }
+
+        out.end();
     }
 
-    private void mapMethod(
-            final StringBuilder builder,
-            final Element methodEl,
-            final List<String> ignoredMethods
-    ) {
-        final var methodName = getName(methodEl);
-        final var methodAnnotation = methodEl.getAnnotation(DuhMapMethod.class);
-        final var methodExEl = ((ExecutableElement) methodEl);
-        final var targetClassEl = asTypeElement(processingEnv, methodExEl.getReturnType());
-        final var sourceType = methodExEl.getParameters().get(0).asType();
-        final var sourceClassEl = asTypeElement(processingEnv, sourceType);
-        if (ignoredMethods.contains(methodName)
-                || methodAnnotation != null && methodAnnotation.ignore()) {
-            builder.append(
-                    String.format(
-                            DuhMapTemplates.IGNORED_METHOD_SIGNATURE,
-                            getFullyQualifiedName(targetClassEl),
-                            methodName,
-                            getFullyQualifiedName(sourceClassEl)
-                    )
-            );
+    // the date & java version change from build
+    // to build, so reproducible output leaves them out.
+    // the version is only known when the processor is
+    // loaded from its jar
+    private void writeGeneratedAnnotation(final DuhMapSourceWriter out) {
+        out.line(String.format("@%s(", out.type(GENERATED)));
+        if (isReproducible()) {
+            if (DUH_MAP_VERSION == null) {
+                out.wrapped(String.format("value = \"%s\"", DuhMapAnnotationProcessor.class.getName()));
+            } else {
+                out.wrapped(String.format("value = \"%s\",", DuhMapAnnotationProcessor.class.getName()))
+                        .wrapped(String.format("comments = \"duhmap version: %s\"", DUH_MAP_VERSION));
+            }
+            out.line(")");
 
             return;
         }
 
-        builder.append(
-                String.format(
-                        getMethodSignature(methodAnnotation),
-                        // we use fully qualified names so we don't
-                        // have to worry about importing
-                        getFullyQualifiedName(targetClassEl),
-                        methodName,
-                        getFullyQualifiedName(sourceClassEl)
-                )
-        );
+        out.wrapped(String.format("value = \"%s\",", DuhMapAnnotationProcessor.class.getName()));
+
+        out.wrapped(String.format("date = \"%s\",", LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME)))
+                .wrapped(String.format(
+                        "comments = \"Java version: %s | duhmap version: %s\"",
+                        System.getProperty("java.version"),
+                        DUH_MAP_VERSION
+                ))
+                .line(")");
+    }
+
+    // the used mappers are held once per class,
+    // never allocated per call. spring beans get
+    // them injected through the constructor
+    private void writeUsedMapperFields(final DuhMapSourceWriter out, final DuhMapInterfaceModel model) {
+        final var usedMappers = getInstanceMappers(model);
+        if (usedMappers.isEmpty()) {
+            return;
+        }
+
+        if (!isInjected(model)) {
+            for (final var usedEl : usedMappers) {
+                final var generatedClass = out.type(getGeneratedClassName(usedEl));
+                out.line(String.format(
+                        "private static final %s %s = new %s();",
+                        generatedClass,
+                        getReferenceName(usedEl, model.getUsedMappers(), false),
+                        generatedClass
+                ));
+            }
+            out.line();
+
+            return;
+        }
 
-        builder.append("        final ");
-        builder.append(targetClassEl);
-        builder.append(" target = new ");
-        builder.append(targetClassEl);
-        builder.append("();");
-        builder.append("\n");
+        final var parameters = new ArrayList<String>();
+        for (final var usedEl : usedMappers) {
+            final var usedInterface = out.type(getFullyQualifiedName(usedEl));
+            final var referenceName = getReferenceName(usedEl, model.getUsedMappers(), true);
+            out.line(String.format("private final %s %s;", usedInterface, referenceName));
+            parameters.add(String.format("final %s %s", usedInterface, referenceName));
+        }
 
-        mapFields(builder, sourceClassEl, methodAnnotation);
+        out.line().open(String.format("public %s(%s)", model.getOutputClassName(), String.join(", ", parameters)));
+        for (final var usedEl : usedMappers) {
+            final var referenceName = getReferenceName(usedEl, model.getUsedMappers(), true);
+            out.line(String.format("this.%s = %s;", referenceName, referenceName));
+        }
+        out.end().line();
+    }
+
+    // registered once per method when the class
+    // is initialised, never looked up per call
+    private void writeMetricsFields(final DuhMapSourceWriter out, final DuhMapInterfaceModel model) {
+        if (!model.getAnnotation().metrics()) {
+            return;
+        }
 
-        builder.append("\n        return target;\n");
-        builder.append("    }");
-        builder.append("\n");
-        builder.append("\n");
+        final var mapper = getFullyQualifiedName(model.getInterfaceEl());
+        for (final var method : model.getMethods()) {
+            if (method.isIgnored()) {
+                continue;
+            }
 
-        if (methodAnnotation != null && methodAnnotation.mapList()) {
-            createListMappingMethod(builder, methodExEl, targetClassEl, sourceClassEl);
+            writeMetricsField(out, mapper, method, null);
+            for (final var collectionType : method.getCollectionTypes()) {
+                if (!collectionType.isLazy()) {
+                    writeMetricsField(out, mapper, method, collectionType.name());
+                }
+            }
+            if (isParallel(method)) {
+                writeMetricsField(out, mapper, method, PARALLEL);
+            }
+            if (isAsync(method)) {
+                writeMetricsField(out, mapper, method, ASYNC);
+            }
         }
+        out.line();
     }
 
-    private void createListMappingMethod(
-            final StringBuilder builder,
-            final ExecutableElement methodExEl,
-            final TypeElement targetClassEl,
-            final TypeElement sourceClassEl
+    private void writeMetricsField(
+            final DuhMapSourceWriter out,
+            final String mapper,
+            final DuhMapMethodModel method,
+            final String suffix
     ) {
-        final var srcClassName = getName(sourceClassEl);
-        final var targetClassName = getName(targetClassEl);
-        final var methodName = getName(methodExEl);
-        builder.append(
-                String.format(
-                        DuhMapTemplates.LIST_METHOD,
-                        targetClassName,
-                        methodName,
-                        srcClassName,
-                        targetClassName,
-                        srcClassName,
-                        methodName
-                )
-        );
-        builder.append("\n");
+        out.line(String.format(
+                "private static final %s %s = %s.register(\"%s\", \"%s\");",
+                out.type(METHOD_METRICS),
+                getMetricsField(method, suffix),
+                out.type(METRICS),
+                mapper,
+                getMetricsName(method, suffix)
+        ));
+    }
+
+    private void writeMethod(
+            final DuhMapSourceWriter out,
+            final DuhMapInterfaceModel model,
+            final DuhMapMethodModel method
+    ) {
+        final var annotation = method.getAnnotation();
+        final var className = model.getOutputClassName();
+        final var staticMethods = isStatic(model.getInterfaceEl());
+        // names as referred to in the file,
+        // i.e. simple names when imported
+        final var target = out.type(getFullyQualifiedName(method.getTargetClassEl()));
+        final var source = out.type(getFullyQualifiedName(method.getSourceClassEl()));
+
+        if (staticMethods) {
+            out.open(String.format("public static %s %s(final %s source)", target, method.getName(), source));
+        } else {
+            out.line("@Override")
+                    .open(String.format("public %s %s(final %s source)", target, method.getName(), source));
+        }
+        if (method.isIgnored()) {
+            out.line("return null;")
+                    .end()
+                    .line();
+
+            return;
+        }
+
+        // only the calls from outside are counted, the
+        // bulk methods record once for all their elements
+        final var elementMethod = getElementMethod(model, method);
+        if (!elementMethod.equals(method.getName())) {
+            final var probe = getProbe(model, method, null);
+            probe.begin(out);
+            out.line(String.format("final %s target = %s(source);", target, elementMethod));
+            probe.end(out, "1");
+            out.line()
+                    .line("return target;")
+                    .end()
+                    .line()
+                    .open(String.format(
+                            "private %s%s %s(final %s source)",
+                            staticMethods ? "static " : "",
+                            target,
+                            elementMethod,
+                            source
+                    ));
+        }
+
+        if (annotation != null && annotation.nullSafe()) {
+            out.line("if (source == null) return null;")
+                    .line();
+        }
+
+        if (method.isConstructorMapped()) {
+            writeConstructorCall(out, method, target);
+        } else {
+            out.line(String.format("final %s target = new %s();", target, target));
+            writeFields(out, method);
+        }
+
+        out.line()
+                .line("return target;")
+                .end()
+                .line();
+
+        if (isMapInto(method)) {
+            writeMapIntoMethods(out, method, target, source, elementMethod, staticMethods);
+        }
+
+        if (isAsync(method)) {
+            DuhMapCollectionMethods.writeAsyncList(
+                    out,
+                    target,
+                    method.getName(),
+                    elementMethod,
+                    source,
+                    annotation.asyncChunkSize(),
+                    staticMethods,
+                    getProbe(model, method, ASYNC)
+            );
+        }
+
+        if (isPatch(method)) {
+            writePatchMethod(out, method, target, source, staticMethods);
+        }
+
+        if (isProjection(method)) {
+            writeProjection(out, method, target, source, staticMethods);
+        }
+
+        if (method.getColumns() != null) {
+            writeColumns(out, method, target, source, staticMethods);
+        }
+
+        for (final var collectionType : method.getCollectionTypes()) {
+            DuhMapCollectionMethods.write(
+                    out,
+                    collectionType,
+                    target,
+                    method.getName(),
+                    elementMethod,
+                    source,
+                    className,
+                    staticMethods,
+                    collectionType.isLazy() ? DuhMapProbe.NONE : getProbe(model, method, collectionType.name())
+            );
+        }
+
+        if (isParallel(method)) {
+            DuhMapCollectionMethods.writeParallelList(
+                    out,
+                    target,
+                    method.getName(),
+                    elementMethod,
+                    source,
+                    className,
+                    getTaskName(method),
+                    annotation.parallelThreshold(),
+                    staticMethods,
+                    getProbe(model, method, PARALLEL)
+            );
+        }
     }
 
-    private void mapFields(
-            final StringBuilder builder,
-            final Element paramEl,
-            final DuhMapMethod annotation
+    // copies into caller-owned instances
+    // so they can be pooled
+    private void writeMapIntoMethods(
+            final DuhMapSourceWriter out,
+            final DuhMapMethodModel method,
+            final String target,
+            final String source,
+            final String elementMethod,
+            final boolean staticMethods
     ) {
-        List<String> ignoredFields = new ArrayList<>();
-        if (annotation != null) {
-            ignoredFields = Arrays.asList(annotation.ignoredFields());
+        out.open(String.format(
+                "%s void %s(final %s source, final %s target)",
+                staticMethods ? "public static" : "public",
+                method.getName(),
+                source,
+                target
+        ));
+        if (method.getAnnotation().nullSafe()) {
+            out.line("if (source == null) return;")
+                    .line();
         }
 
-        for (final Element field : paramEl.getEnclosedElements()) {
-            final var fieldName = getName(field);
-            if (!field.getKind().isField() || ignoredFields.contains(fieldName)) {
+        writeFields(out, method);
+        out.end().line();
+
+        DuhMapCollectionMethods.writeMapIntoList(out, target, method.getName(), elementMethod, source, staticMethods);
+    }
+
+    // only the differing fields are written, so
+    // e.g. managed entities aren't needlessly
+    // marked dirty. a null source changes nothing
+    private void writePatchMethod(
+            final DuhMapSourceWriter out,
+            final DuhMapMethodModel method,
+            final String target,
+            final String source,
+            final boolean staticMethods
+    ) {
+        out.open(String.format(
+                        "%s boolean patch%s(final %s source, final %s target)",
+                        staticMethods ? "public static" : "public",
+                        capitalize(method.getName()),
+                        source,
+                        target
+                ))
+                .line("if (source == null) return false;")
+                .line()
+                .line("boolean changed = false;");
+        for (final var field : method.getFields()) {
+            if (field.isIgnored()) {
                 continue;
             }
 
-            final var fieldNameUppercase = Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
-            builder.append(
-                    String.format(DuhMapTemplates.FIELD, fieldNameUppercase, fieldNameUppercase)
-            );
-            builder.append("\n");
+            writeReadStatement(out, field.getPatchReadStatement());
+            out.line(String.format("final var %s = %s;", field.getPatchLocal(), field.getPatchValue()))
+                    .open(String.format("if (%s)", field.getPatchCheck()))
+                    .line(field.getPatchStatement())
+                    .line("changed = true;")
+                    .end();
         }
+
+        out.line()
+                .line("return changed;")
+                .end()
+                .line();
     }
 
-    private static void writeToFile(
-            final ProcessingEnvironment processingEnv,
-            final String packageName,
-            final String className,
-            final String content
+    /**
+     * One bit per (non-ignored) field, in declaration
+     * order. The overload tests the precomputed bits,
+     * so fields which aren't requested are never read.
+     */
+    private void writeProjection(
+            final DuhMapSourceWriter out,
+            final DuhMapMethodModel method,
+            final String target,
+            final String source,
+            final boolean staticMethods
     ) {
-        final Filer filer = processingEnv.getFiler();
-        final FileObject fileObject;
+        final var fieldsName = getFieldsName(method);
+        final var fields = method.getFields()
+                .stream()
+                .filter(field -> !field.isIgnored())
+                .toList();
 
-        try {
-            fileObject = filer.createResource(StandardLocation.SOURCE_OUTPUT, packageName, className + ".java");
-        } catch (final IOException e) {
-            throw new DuhMapException(
-                    String.format(
-                            "Error during writing of DuhMap file to source output for class: %s.%s",
-                            packageName,
-                            className
-                    ),
-                    e
-            );
+        out.open(String.format("public static final class %s", fieldsName))
+                .line();
+        for (int i = 0; i < fields.size(); i++) {
+            out.line(String.format("public static final long %s = 1L << %d;", getConstantName(fields.get(i).getName()), i));
         }
+        out.line()
+                .open(String.format("private %s()", fieldsName))
+                .line("// do not instantiate")
+                .end()
+                .line()
+                .open("public static long all()")
+                .line(String.format(
+                        "return %s;",
+                        fields.isEmpty()
+                                ? "0L"
+                                : String.join(" | ", fields.stream().map(field -> getConstantName(field.getName())).toList())
+                ))
+                .end()
+                .end()
+                .line();
 
-        try (final Writer writer = fileObject.openWriter()) {
-            writer.write(content);
-        } catch (final IOException e) {
-            throw new DuhMapException(
-                    String.format(
-                            "Error during writing of DuhMap file to source output for class: %s.%s",
-                            packageName,
-                            className
-                    ),
-                    e
+        out.open(String.format(
+                "%s %s %s(final %s source, final long fields)",
+                staticMethods ? "public static" : "public",
+                target,
+                method.getName(),
+                source
+        ));
+        if (method.getAnnotation().nullSafe()) {
+            out.line("if (source == null) return null;")
+                    .line();
+        }
+
+        out.line(String.format("final %s target = new %s();", target, target));
+        for (final var field : fields) {
+            out.open(String.format("if ((fields & %s.%s) != 0)", fieldsName, getConstantName(field.getName())));
+            writeReadStatement(out, field.getReadStatement());
+            out.line(field.getWriteStatement())
+                    .end();
+        }
+
+        out.line()
+                .line("return target;")
+                .end()
+                .line();
+    }
+
+    /**
+     * A struct of arrays: each mapped field's values
+     * are kept in their own array, so primitives stay
+     * unboxed & contiguous instead of being spread
+     * over one target object per row.
+     */
+    private void writeColumns(
+            final DuhMapSourceWriter out,
+            final DuhMapMethodModel method,
+            final String target,
+            final String source,
+            final boolean staticMethods
+    ) {
+        final var modifiers = staticMethods ? "public static" : "public";
+        final var columnsName = getColumnsName(method);
+        final var columns = method.getColumns();
+        final var list = out.type("java.util.List");
+
+        out.open(String.format("public static final class %s", columnsName))
+                .line();
+        for (final var column : columns) {
+            out.line(String.format("public final %s[] %s;", getColumnType(out, column.getType()), column.getName()));
+        }
+        out.line();
+        // generic arrays can only be created raw
+        if (columns.stream().anyMatch(column -> isGeneric(column.getType()))) {
+            out.line(String.format("@%s({\"unchecked\", \"rawtypes\"})", out.type("java.lang.SuppressWarnings")));
+        }
+        out.open(String.format("public %s(final int size)", columnsName));
+        for (final var column : columns) {
+            out.line(String.format("this.%s = %s;", column.getName(), getArrayCreation(out, column.getType())));
+        }
+        out.end()
+                .line()
+                .open("public int size()")
+                .line(columns.isEmpty() ? "return 0;" : String.format("return %s.length;", columns.get(0).getName()))
+                .end()
+                .end()
+                .line();
+
+        out.open(String.format(
+                        "%s %s %sColumns(final %s<%s> sources)",
+                        modifiers,
+                        columnsName,
+                        method.getName(),
+                        list,
+                        source
+                ))
+                .line(String.format("final %s columns = new %s(sources.size());", columnsName, columnsName))
+                .line("int i = 0;")
+                .open(String.format("for (final %s source : sources)", source))
+                // a row cannot be left out of the columns
+                .line(String.format(
+                        "%s.requireNonNull(source, \"%sColumns cannot map a null element of sources\");",
+                        out.type("java.util.Objects"),
+                        method.getName()
+                ));
+        for (final var column : columns) {
+            writeReadStatement(out, method.getField(column.getName()).getReadStatement());
+            out.line(String.format("columns.%s[i] = %s;", column.getName(), column.getValue()));
+        }
+        out.line("i++;")
+                .end()
+                .line()
+                .line("return columns;")
+                .end()
+                .line();
+
+        out.open(String.format("%s %s<%s> %sRows(final %s columns)", modifiers, list, target, method.getName(), columnsName))
+                .line("final int size = columns.size();")
+                .line(String.format("final %s<%s> targets = new %s<>(size);", list, target, out.type("java.util.ArrayList")))
+                .open("for (int i = 0; i < size; i++)");
+        if (method.isConstructorMapped()) {
+            out.line(String.format("targets.add(new %s(", target));
+            final var arguments = method.getRowArguments();
+            for (int i = 0; i < arguments.size(); i++) {
+                out.wrapped(i < arguments.size() - 1 ? arguments.get(i) + "," : arguments.get(i));
+            }
+            out.line("));");
+        } else {
+            out.line(String.format("final %s target = new %s();", target, target));
+            for (final var column : columns) {
+                out.line(column.getWriteStatement());
+            }
+            out.line("targets.add(target);");
+        }
+        out.end()
+                .line()
+                .line("return targets;")
+                .end()
+                .line();
+    }
+
+    // imported when registering, generic
+    // & array types are written in full
+    private static String getColumnType(final DuhMapSourceWriter out, final TypeMirror type) {
+        return isPlainDeclaredType(type) ? out.type(type.toString()) : type.toString();
+    }
+
+    // e.g. new int[size] or new List[size][]
+    private String getArrayCreation(final DuhMapSourceWriter out, final TypeMirror type) {
+        var component = isPlainDeclaredType(type)
+                ? out.type(type.toString())
+                : processingEnv.getTypeUtils().erasure(type).toString();
+        var dimensions = "";
+        while (component.endsWith("[]")) {
+            component = component.substring(0, component.length() - 2);
+            dimensions += "[]";
+        }
+
+        return String.format("new %s[size]%s", component, dimensions);
+    }
+
+    private static boolean isPlainDeclaredType(final TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED && ((DeclaredType) type).getTypeArguments().isEmpty();
+    }
+
+    private static boolean isGeneric(final TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return isGeneric(((ArrayType) type).getComponentType());
+        }
+
+        return type.getKind() == TypeKind.DECLARED && !((DeclaredType) type).getTypeArguments().isEmpty();
+    }
+
+    // the fields are encoded & decoded in the
+    // same fixed order, without any tags
+    private void writeCodec(
+            final DuhMapSourceWriter out,
+            final DuhMapMethodModel method,
+            final boolean staticMethods
+    ) {
+        final var modifiers = staticMethods ? "public static" : "public";
+        final var target = out.type(getFullyQualifiedName(method.getTargetClassEl()));
+        final var name = getName(method.getTargetClassEl());
+        final var byteBuffer = out.type("java.nio.ByteBuffer");
+        final var fields = method.getCodecFields();
+
+        out.open(String.format("%s int get%sSize(final %s value)", modifiers, name, target));
+        if (fields.isEmpty()) {
+            out.line("return 0;");
+        } else {
+            for (int i = 0; i < fields.size(); i++) {
+                final var field = fields.get(i);
+                final var size = DuhMapCodecs.getSize(processingEnv, field.getType(), field.getRead());
+                final var end = i == fields.size() - 1 ? ";" : "";
+                if (i == 0) {
+                    out.line("return " + size + end);
+                } else {
+                    out.wrapped(String.format("+ %s%s", size, end));
+                }
+            }
+        }
+        out.end()
+                .line()
+                .open(String.format("%s void encode%s(final %s value, final %s buffer)", modifiers, name, target, byteBuffer));
+        for (final var field : fields) {
+            DuhMapCodecs.writeEncode(
+                    out,
+                    processingEnv,
+                    field.getType(),
+                    field.getRead(),
+                    field.getLocal()
             );
         }
+        out.end()
+                .line()
+                .open(String.format("%s %s decode%s(final %s buffer)", modifiers, target, name, byteBuffer));
+        if (method.isConstructorMapped()) {
+            // arguments are evaluated left to right,
+            // so they are read in parameter order
+            out.line(String.format("return new %s(", target));
+            for (int i = 0; i < fields.size(); i++) {
+                final var decode = fields.get(i).getDecode();
+                out.wrapped(i < fields.size() - 1 ? decode + "," : decode);
+            }
+            out.line(");");
+        } else {
+            out.line(String.format("final %s target = new %s();", target, target));
+            for (final var field : fields) {
+                out.line(field.getWriteStatement());
+            }
+            out.line()
+                    .line("return target;");
+        }
+        out.end()
+                .line();
+    }
+
+    private void writeFields(final DuhMapSourceWriter out, final DuhMapMethodModel method) {
+        for (final var field : method.getFields()) {
+            if (!field.isIgnored()) {
+                writeReadStatement(out, field.getReadStatement());
+                out.line(field.getWriteStatement());
+            }
+        }
+    }
+
+    // binds a source read to its local, for
+    // values which would otherwise read it twice
+    private static void writeReadStatement(final DuhMapSourceWriter out, final String readStatement) {
+        if (readStatement != null) {
+            out.line(readStatement);
+        }
+    }
+
+    // arguments follow the constructor's parameter
+    // order. those the source cannot supply (or
+    // which are ignored) get the type's default
+    private void writeConstructorCall(
+            final DuhMapSourceWriter out,
+            final DuhMapMethodModel method,
+            final String target
+    ) {
+        final var arguments = method.getConstructorArguments();
+        // only the fields the constructor takes
+        for (final var field : method.getFields()) {
+            if (!field.isIgnored() && arguments.contains(field.getValue())) {
+                writeReadStatement(out, field.getReadStatement());
+            }
+        }
+        out.line(String.format("final %s target = new %s(", target, target));
+        for (int i = 0; i < arguments.size(); i++) {
+            out.wrapped(i < arguments.size() - 1 ? arguments.get(i) + "," : arguments.get(i));
+        }
+        out.line(");");
+    }
+
+    // static mappers are called on their class,
+    // so they are neither held nor injected
+    private static List<TypeElement> getInstanceMappers(final DuhMapInterfaceModel model) {
+        return model.getUsedMappers()
+                .stream()
+                .filter(usedEl -> !isStatic(usedEl))
+                .toList();
+    }
+
+    private static boolean isInjected(final DuhMapInterfaceModel model) {
+        return model.getAnnotation().beanType() == DuhMapClassType.SPRING_BEAN;
+    }
+
+    private static boolean isMapInto(final DuhMapMethodModel method) {
+        return !method.isIgnored() && method.getAnnotation() != null && method.getAnnotation().mapInto();
+    }
+
+    private static boolean isAsync(final DuhMapMethodModel method) {
+        return !method.isIgnored() && method.getAnnotation() != null && method.getAnnotation().asyncChunkSize() > 0;
+    }
+
+    private static boolean isPatch(final DuhMapMethodModel method) {
+        return !method.isIgnored() && method.getAnnotation() != null && method.getAnnotation().patch();
+    }
+
+    // a single codec per target type,
+    // however many methods map to it
+    private static List<DuhMapMethodModel> getCodecMethods(final DuhMapInterfaceModel model) {
+        final var targets = new HashSet<String>();
+
+        return model.getMethods()
+                .stream()
+                .filter(method -> method.getCodecFields() != null)
+                .filter(method -> targets.add(getFullyQualifiedName(method.getTargetClassEl())))
+                .toList();
+    }
+
+    private static boolean hasStrings(final List<DuhMapMethodModel> codecs) {
+        return codecs.stream()
+                .flatMap(method -> method.getCodecFields().stream())
+                .anyMatch(field -> DuhMapCodecs.isString(field.getType()));
+    }
+
+    private static boolean isProjection(final DuhMapMethodModel method) {
+        return !method.isIgnored() && method.getAnnotation() != null && method.getAnnotation().projection();
+    }
+
+    // e.g. StudentDTOColumns
+    private static String getColumnsName(final DuhMapMethodModel method) {
+        return getName(method.getTargetClassEl()) + "Columns";
+    }
+
+    // e.g. MapToFields
+    private static String getFieldsName(final DuhMapMethodModel method) {
+        return capitalize(method.getName()) + "Fields";
+    }
+
+    private static boolean isParallel(final DuhMapMethodModel method) {
+        return !method.isIgnored() && method.getAnnotation() != null && method.getAnnotation().parallelThreshold() > 0;
+    }
+
+    // the suffix names the collection type (or the
+    // parallel & async lists), null for the single-object
+    // method. only the bulk methods record events
+    private static DuhMapProbe getProbe(
+            final DuhMapInterfaceModel model,
+            final DuhMapMethodModel method,
+            final String suffix
+    ) {
+        final var annotation = model.getAnnotation();
+        if (!annotation.metrics() && !(annotation.events() && suffix != null)) {
+            return DuhMapProbe.NONE;
+        }
+
+        return new DuhMapProbe(
+                annotation.metrics() ? getMetricsField(method, suffix) : null,
+                annotation.events() && suffix != null ? getFullyQualifiedName(model.getInterfaceEl()) : null,
+                getMetricsName(method, suffix)
+        );
+    }
+
+    // e.g. mapTo(LIST), mapToParallel or mapToAsync
+    private static String getMetricsName(final DuhMapMethodModel method, final String suffix) {
+        if (suffix == null) {
+            return method.getName();
+        }
+
+        return switch (suffix) {
+            case PARALLEL -> method.getName() + "Parallel";
+            case ASYNC -> method.getName() + "Async";
+            default -> String.format("%s(%s)", method.getName(), suffix);
+        };
+    }
+
+    // e.g. MAP_TO_LIST_METRICS
+    private static String getMetricsField(final DuhMapMethodModel method, final String suffix) {
+        final var name = getConstantName(method.getName());
+
+        return suffix == null ? name + "_METRICS" : String.format("%s_%s_METRICS", name, suffix);
+    }
+
+    // the method mapping each element of the bulk
+    // methods, uncounted when metrics are enabled
+    private static String getElementMethod(final DuhMapInterfaceModel model, final DuhMapMethodModel method) {
+        return model.getAnnotation().metrics() ? method.getName() + "Uncounted" : method.getName();
+    }
+
+    private static String getTaskName(final DuhMapMethodModel method) {
+        return capitalize(method.getName()) + "ParallelTask";
     }
 
-}
\ No newline at end of file
+}
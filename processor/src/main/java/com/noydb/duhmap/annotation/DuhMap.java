@@ -16,10 +16,11 @@ import java.lang.annotation.Target;
  *
  * @author bpower
  */
-// marks  the annotation as only available
-// at source processing. So not available
-// at runtime
-@Retention(RetentionPolicy.SOURCE)
+// kept in the class file, so mappers compiled
+// elsewhere (another module or jar) can still
+// be used & gradle's incremental processing
+// tracks them, but not available at runtime
+@Retention(RetentionPolicy.CLASS)
 @Target(ElementType.TYPE) // can only be
 // used on a class, interface, enum, or
 // record
@@ -39,4 +40,41 @@ public @interface DuhMap {
     DuhMapClassType beanType() default DuhMapClassType.DEFAULT;
 
     DuhMapStrictRule[] ignoredStrictChecks() default {};
+
+    /**
+     * Other @DuhMap interfaces whose methods
+     * are called to map fields whose source
+     * & target types differ. The annotated
+     * interface's own methods are always
+     * considered first.
+     */
+    Class<?>[] uses() default {};
+
+    /**
+     * Classes whose public static, single argument
+     * methods convert fields whose source & target
+     * types differ, e.g. {@code String} to
+     * {@code UUID}. The matching method is called
+     * directly, before any nested mapper is tried.
+     */
+    Class<?>[] converters() default {};
+
+    /**
+     * If enabled, each single-object method & its
+     * eager collection, parallel & async overloads
+     * count their calls, mapped elements & time
+     * spent in the {@code DuhMapMetrics} registry,
+     * which then has to be on the runtime classpath.
+     * mapInto, patch, projection, columns & codec
+     * methods are not counted.
+     */
+    boolean metrics() default false;
+
+    /**
+     * If enabled, the collection methods record a
+     * {@code DuhMapEvent} for Java Flight Recorder.
+     * The event is disabled unless a recording
+     * enables it, costing next to nothing until then.
+     */
+    boolean events() default false;
 }
\ No newline at end of file
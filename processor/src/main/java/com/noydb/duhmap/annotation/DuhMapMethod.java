@@ -1,14 +1,17 @@
 package com.noydb.duhmap.annotation;
 
+import com.noydb.duhmap.kit.DuhMapCollectionType;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
-// marks the annotation as only available
-// at source processing. So not available
-// at runtime
-@Retention(RetentionPolicy.SOURCE)
+// kept in the class file, so mappers compiled
+// elsewhere (another module or jar) can still
+// be used & gradle's incremental processing
+// tracks them, but not available at runtime
+@Retention(RetentionPolicy.CLASS)
 // can only be used on a class, interface,
 // enum, or record
 @Target(ElementType.METHOD)
@@ -20,6 +23,120 @@ public @interface DuhMapMethod {
 
     boolean nullSafe() default true;
 
+    /**
+     * Shorthand for including
+     * {@link DuhMapCollectionType#LIST}
+     * in {@link #collections()}.
+     */
     boolean mapList() default false;
 
+    /**
+     * Shorthand for including
+     * {@link DuhMapCollectionType#MAP}
+     * in {@link #collections()}.
+     */
+    boolean mapMap() default false;
+
+    /**
+     * The collection (and array) overloads
+     * to generate next to the annotated
+     * method. Each overload is presized from
+     * the source & picks the cheapest loop
+     * for its input.
+     */
+    DuhMapCollectionType[] collections() default {};
+
+    /**
+     * When greater than zero, a parallel list
+     * method is generated (named after the
+     * annotated method, suffixed with
+     * "Parallel"). Lists larger than the
+     * threshold are split into fork/join tasks
+     * of at most this many elements.
+     */
+    int parallelThreshold() default 0;
+
+    /**
+     * When greater than zero, asynchronous list
+     * methods are generated (named after the
+     * annotated method, suffixed with "Async"),
+     * mapping chunks of at most this many elements
+     * on the given executor - or on virtual threads
+     * when running on Java 21+.
+     */
+    int asyncChunkSize() default 0;
+
+    /**
+     * Instantiate the target through its
+     * {@code @ConstructorProperties} or
+     * all-args constructor, instead of the
+     * no-args constructor & setters. Records
+     * always use their canonical constructor.
+     */
+    boolean useConstructor() default false;
+
+    /**
+     * Also generate methods copying into
+     * caller-owned instances: a
+     * {@code void (source, target)} overload,
+     * and a list overload refilling an
+     * existing target list.
+     */
+    boolean mapInto() default false;
+
+    /**
+     * Values for primitive target fields whose boxed
+     * source is null, as {@code "field=value"} pairs,
+     * e.g. {@code "age=-1"}. Other fields fall back
+     * to the primitive's default (0 or false). Also
+     * used for null sources of converted fields.
+     */
+    String[] nullDefaults() default {};
+
+    /**
+     * Also generate a {@code boolean patchX(source,
+     * target)} method (X being the annotated method's
+     * name), only writing the target's fields whose
+     * values differ & returning whether any did.
+     */
+    boolean patch() default false;
+
+    /**
+     * Leaves a target field untouched when its
+     * source value is null, rather than patching
+     * it to null.
+     */
+    boolean patchSkipsNulls() default false;
+
+    /**
+     * Also generate a {@code (source, long fields)}
+     * overload only copying the fields whose bits are
+     * set, as defined by the generated nested
+     * {@code XFields} class (X being the annotated
+     * method's name). Needs a no-args constructor
+     * target with at most 64 fields.
+     */
+    boolean projection() default false;
+
+    /**
+     * Also generate a flat {@code ByteBuffer} codec
+     * for the target type: {@code encodeX(target,
+     * buffer)}, {@code decodeX(buffer)} & the exact
+     * encoded size {@code getXSize(target)}, X being
+     * the target's name. Only primitive, boxed & string
+     * fields are supported.
+     */
+    boolean codec() default false;
+
+    /**
+     * Also generate a columnar container for the
+     * target, {@code XColumns} holding one array per
+     * field (X being the target's name), & the bulk
+     * methods mapping a list of sources into it &
+     * its rows back into targets, named after the
+     * annotated method suffixed with "Columns" &
+     * "Rows".
+     */
+    boolean columns() default false;
+
 }
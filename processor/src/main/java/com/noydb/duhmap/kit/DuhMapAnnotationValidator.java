@@ -4,6 +4,8 @@ import com.noydb.duhmap.annotation.DuhMap;
 import com.noydb.duhmap.annotation.DuhMapMethod;
 import com.noydb.duhmap.error.DuhMapException;
 import com.noydb.duhmap.error.StrictDuhMapException;
+import com.noydb.duhmap.model.DuhMapInterfaceModel;
+import com.noydb.duhmap.model.DuhMapMethodModel;
 
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.RoundEnvironment;
@@ -12,14 +14,10 @@ import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
-import javax.lang.model.type.DeclaredType;
-import javax.lang.model.type.ExecutableType;
 import javax.lang.model.type.TypeKind;
-import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Types;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -28,6 +26,7 @@ import static com.noydb.duhmap.kit.DuhMapProcessorUtils.DUH_MAP_VERSION;
 import static com.noydb.duhmap.kit.DuhMapProcessorUtils.asTypeElement;
 import static com.noydb.duhmap.kit.DuhMapProcessorUtils.getFullyQualifiedName;
 import static com.noydb.duhmap.kit.DuhMapProcessorUtils.getMismatchingFieldsLog;
+import static com.noydb.duhmap.kit.DuhMapProcessorUtils.isRecord;
 
 public final class DuhMapAnnotationValidator {
 
@@ -49,7 +48,24 @@ public final class DuhMapAnnotationValidator {
             final ProcessingEnvironment processingEnv
     ) {
         validateAnnotatedInterfaces(processingEnv, roundEnv);
-        validateAnnotatedMethods(roundEnv);
+        validateAnnotatedMethods(processingEnv, roundEnv);
+    }
+
+    // the field rules run off the round's model,
+    // so no type is introspected twice
+    public static void run(
+            final List<DuhMapInterfaceModel> models,
+            final ProcessingEnvironment processingEnv
+    ) {
+        for (final var model : models) {
+            for (final var method : model.getMethods()) {
+                checkFields(processingEnv, model, method);
+                checkProjection(model, method);
+                checkPatch(model, method);
+            }
+            checkColumns(model);
+            checkOverloads(model);
+        }
     }
 
     private static void validateAnnotatedInterfaces(
@@ -73,7 +89,6 @@ public final class DuhMapAnnotationValidator {
             }
 
             checkMethods(processingEnv, interfaceEl);
-            checkFields(processingEnv, interfaceEl);
         }
     }
 
@@ -110,7 +125,10 @@ public final class DuhMapAnnotationValidator {
         validateIgnoredMethods(interfaceEl, methods);
     }
 
-    private static void validateAnnotatedMethods(final RoundEnvironment roundEnv) {
+    private static void validateAnnotatedMethods(
+            final ProcessingEnvironment processingEnv,
+            final RoundEnvironment roundEnv
+    ) {
         for (final Element methodEl : roundEnv.getElementsAnnotatedWith(DuhMapMethod.class)) {
             if (methodEl.getKind() != ElementKind.METHOD) {
                 throw new DuhMapException("You may only use DuhMapMethod annotation with a method", (ExecutableElement) methodEl);
@@ -134,82 +152,237 @@ public final class DuhMapAnnotationValidator {
                         )
                 );
             }
+
+            final var methodAnnotation = methodEl.getAnnotation(DuhMapMethod.class);
+            if (methodAnnotation.mapInto()
+                    && isRecord(asTypeElement(processingEnv, ((ExecutableElement) methodEl).getReturnType()))) {
+                throw new DuhMapException(
+                        "Records are immutable, they cannot be the target of mapInto",
+                        (ExecutableElement) methodEl,
+                        (TypeElement) enclosingEl
+                );
+            }
+
+            if (methodAnnotation.patch()
+                    && isRecord(asTypeElement(processingEnv, ((ExecutableElement) methodEl).getReturnType()))) {
+                throw new DuhMapException(
+                        "Records are immutable, they cannot be the target of patch",
+                        (ExecutableElement) methodEl,
+                        (TypeElement) enclosingEl
+                );
+            }
+
+            if (methodAnnotation.parallelThreshold() < 0) {
+                throw new DuhMapException(
+                        "The parallelThreshold of a DuhMapMethod cannot be negative",
+                        (ExecutableElement) methodEl,
+                        (TypeElement) enclosingEl
+                );
+            }
+
+            if (methodAnnotation.asyncChunkSize() < 0) {
+                throw new DuhMapException(
+                        "The asyncChunkSize of a DuhMapMethod cannot be negative",
+                        (ExecutableElement) methodEl,
+                        (TypeElement) enclosingEl
+                );
+            }
+
+            for (final var nullDefault : methodAnnotation.nullDefaults()) {
+                if (nullDefault.indexOf('=') < 1) {
+                    throw new DuhMapException(
+                            String.format("Invalid null default \"%s\", expected \"field=value\"", nullDefault),
+                            (ExecutableElement) methodEl,
+                            (TypeElement) enclosingEl
+                    );
+                }
+            }
         }
     }
 
-    private static void checkFields(
-            final ProcessingEnvironment processingEnv,
-            final TypeElement interfaceEl
-    ) {
-        for (final var el : interfaceEl.getEnclosedElements()) {
-            final var strictFails = new HashSet<DuhMapStrictRule>();
+    // the mask is a long, one bit per field, & is
+    // checked before each setter. constructors
+    // take all of their arguments at once
+    private static void checkProjection(final DuhMapInterfaceModel model, final DuhMapMethodModel method) {
+        final var annotation = method.getAnnotation();
+        if (method.isIgnored() || annotation == null || !annotation.projection()) {
+            return;
+        }
 
-            if (!el.getKind().equals(ElementKind.METHOD)) {
-                continue;
+        if (method.isConstructorMapped()) {
+            throw new DuhMapException(
+                    "A projection needs a target with a no-args constructor & setters (or fields)",
+                    method.getMethodEl(),
+                    model.getInterfaceEl()
+            );
+        }
+
+        if (method.getFields().stream().filter(field -> !field.isIgnored()).count() > Long.SIZE) {
+            throw new DuhMapException(
+                    String.format("A projection can map at most %d fields", Long.SIZE),
+                    method.getMethodEl(),
+                    model.getInterfaceEl()
+            );
+        }
+    }
+
+    // patching writes each changed field in place,
+    // constructors cannot be called on a target
+    // which already exists
+    private static void checkPatch(final DuhMapInterfaceModel model, final DuhMapMethodModel method) {
+        final var annotation = method.getAnnotation();
+        if (method.isIgnored() || annotation == null || !annotation.patch()) {
+            return;
+        }
+
+        for (final var field : method.getFields()) {
+            if (!field.isIgnored() && field.getPatchStatement() == null) {
+                throw new DuhMapException(
+                        String.format(
+                                "A patch needs an accessible, non-final field or a setter for %s in %s",
+                                field.getName(),
+                                getFullyQualifiedName(method.getTargetClassEl())
+                        ),
+                        method.getMethodEl(),
+                        model.getInterfaceEl()
+                );
             }
+        }
+    }
 
-            final TypeMirror paramType = ((ExecutableElement) el).getParameters().get(0).asType();
-            final var paramEl = (TypeElement) ((DeclaredType) paramType).asElement();
-            final var sourceFieldEls = DuhMapProcessorUtils.getFields(paramEl);
+    // the containers are nested classes
+    // named after their target
+    private static void checkColumns(final DuhMapInterfaceModel model) {
+        final var names = new HashSet<String>();
+        for (final var method : model.getMethods()) {
+            if (method.getColumns() != null
+                    && !names.add(DuhMapProcessorUtils.getName(method.getTargetClassEl()))) {
+                throw new DuhMapException(
+                        "Only one method per target (name) can generate a columnar container",
+                        method.getMethodEl(),
+                        model.getInterfaceEl()
+                );
+            }
+        }
+    }
 
-            final var targetTypeEl = asTypeElement(
-                    processingEnv, ((ExecutableType) el.asType()).getReturnType()
-            );
-            final var targetFieldEls = DuhMapProcessorUtils.getFields(targetTypeEl);
+    // the generated classes & methods below are
+    // named after the mapping method, so they
+    // would clash between its overloads
+    private static void checkOverloads(final DuhMapInterfaceModel model) {
+        final var names = new HashSet<String>();
+        final var overloaded = new HashSet<String>();
+        for (final var method : model.getMethods()) {
+            if (!method.isIgnored() && !names.add(method.getName())) {
+                overloaded.add(method.getName());
+            }
+        }
 
-            if (sourceFieldEls.size() != targetFieldEls.size()) {
-                strictFails.add(DuhMapStrictRule.MISMATCHED_FIELD_COUNT);
+        for (final var method : model.getMethods()) {
+            if (method.isIgnored() || !overloaded.contains(method.getName())) {
+                continue;
             }
 
-            final var sourceFieldsSorted = sourceFieldEls
-                    .stream()
-                    .sorted(Comparator.comparing(DuhMapProcessorUtils::getName))
-                    .toList();
-            final var targetFieldsSorted = targetFieldEls
-                    .stream()
-                    .sorted(Comparator.comparing(DuhMapProcessorUtils::getName))
-                    .toList();
-
-            for (int i = 0; i < sourceFieldsSorted.size(); i++) {
-                final var sourceFieldEl = sourceFieldsSorted.get(i);
-                // target may not have as many fields
-                // this prevents IndexOutOfBoundsException
-                if (i == targetFieldsSorted.size()) {
-                    break;
-                }
+            final var generated = getNamedAfterMethod(model, method);
+            if (generated != null) {
+                throw new DuhMapException(
+                        String.format(
+                                "Overloaded methods cannot generate %s, the generated names derive from the method name",
+                                generated
+                        ),
+                        method.getMethodEl(),
+                        model.getInterfaceEl()
+                );
+            }
+        }
+    }
 
-                final var targetFieldEl = targetFieldsSorted.get(i);
+    private static String getNamedAfterMethod(final DuhMapInterfaceModel model, final DuhMapMethodModel method) {
+        if (model.getAnnotation().metrics()) {
+            return "metrics";
+        }
 
-                if (!sourceFieldEl.getSimpleName().equals(targetFieldEl.getSimpleName())) {
-                    strictFails.add(DuhMapStrictRule.MISMATCHED_FIELD_NAMES);
-                }
+        final var annotation = method.getAnnotation();
+        if (annotation == null) {
+            return null;
+        }
+
+        if (annotation.projection()) {
+            return "a projection";
+        }
+
+        if (annotation.parallelThreshold() > 0) {
+            return "a parallel list method";
+        }
+
+        if (annotation.asyncChunkSize() > 0) {
+            return "async list methods";
+        }
+
+        if (method.getCollectionTypes().contains(DuhMapCollectionType.PUBLISHER)) {
+            return "a publisher & processor";
+        }
+
+        return null;
+    }
+
+    private static void checkFields(
+            final ProcessingEnvironment processingEnv,
+            final DuhMapInterfaceModel model,
+            final DuhMapMethodModel method
+    ) {
+        final var strictFails = new HashSet<DuhMapStrictRule>();
+        final var sourceFieldsSorted = method.getSortedSourceFields();
+        final var targetFieldsSorted = method.getSortedTargetFields();
+
+        if (sourceFieldsSorted.size() != targetFieldsSorted.size()) {
+            strictFails.add(DuhMapStrictRule.MISMATCHED_FIELD_COUNT);
+        }
+
+        for (int i = 0; i < sourceFieldsSorted.size(); i++) {
+            final var sourceFieldEl = sourceFieldsSorted.get(i);
+            // target may not have as many fields
+            // this prevents IndexOutOfBoundsException
+            if (i == targetFieldsSorted.size()) {
+                break;
+            }
+
+            final var targetFieldEl = targetFieldsSorted.get(i);
 
-                final var sourceType = sourceFieldEl.asType();
-                final var targetType = targetFieldEl.asType();
-                if (!sourceType.equals(targetType)) {
+            if (!sourceFieldEl.getSimpleName().equals(targetFieldEl.getSimpleName())) {
+                strictFails.add(DuhMapStrictRule.MISMATCHED_FIELD_NAMES);
+                if (!processingEnv.getTypeUtils().isSameType(sourceFieldEl.asType(), targetFieldEl.asType())) {
                     strictFails.add(DuhMapStrictRule.MISMATCHED_FIELD_TYPE);
                 }
+
+                continue;
             }
 
-            if (!strictFails.isEmpty()) {
-                handleFieldStrictFailure(
-                        interfaceEl.getAnnotation(DuhMap.class),
-                        String.format(
-                                "Field rules: %s failed for %s",
-                                strictFails,
-                                getMismatchingFieldsLog(
-                                        sourceFieldEls,
-                                        targetFieldEls,
-                                        getFullyQualifiedName(paramEl),
-                                        getFullyQualifiedName(targetTypeEl)
-                                )
-                        ),
-                        strictFails
-                );
+            // the model already knows whether
+            // a nested mapper covers the field
+            if (method.getField(DuhMapProcessorUtils.getName(sourceFieldEl)).isTypeMismatch()) {
+                strictFails.add(DuhMapStrictRule.MISMATCHED_FIELD_TYPE);
             }
+        }
 
-            validateIgnoredFieldsExist(sourceFieldEls, el.getAnnotation(DuhMapMethod.class), interfaceEl);
+        if (!strictFails.isEmpty()) {
+            handleFieldStrictFailure(
+                    model.getAnnotation(),
+                    String.format(
+                            "Field rules: %s failed for %s",
+                            strictFails,
+                            getMismatchingFieldsLog(
+                                    sourceFieldsSorted,
+                                    targetFieldsSorted,
+                                    getFullyQualifiedName(method.getSourceClassEl()),
+                                    getFullyQualifiedName(method.getTargetClassEl())
+                            )
+                    ),
+                    strictFails
+            );
         }
+
+        validateIgnoredFieldsExist(sourceFieldsSorted, method.getAnnotation(), model.getInterfaceEl());
     }
 
     // we only need one set of fields
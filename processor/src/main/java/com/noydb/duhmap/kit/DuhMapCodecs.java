@@ -0,0 +1,184 @@
+package com.noydb.duhmap.kit;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import java.util.List;
+
+import static com.noydb.duhmap.kit.DuhMapPrimitives.asPrimitive;
+
+/**
+ * Writes the flat {@code ByteBuffer} codec of a
+ * target, its fields in a fixed order. Primitives
+ * are written as is, boxed values & strings are
+ * prefixed by a null marker (strings by their
+ * length, -1 for null) & stored as UTF-8.
+ */
+public final class DuhMapCodecs {
+
+    private static final String STRING = "java.lang.String";
+
+    private DuhMapCodecs() {
+        // do not instantiate
+    }
+
+    public static List<String> getImports(final boolean strings) {
+        return strings
+                ? List.of("java.nio.ByteBuffer", "java.nio.charset.StandardCharsets")
+                : List.of("java.nio.ByteBuffer");
+    }
+
+    public static boolean isSupported(final ProcessingEnvironment processingEnv, final TypeMirror type) {
+        return isString(type) || asPrimitive(processingEnv, type) != null;
+    }
+
+    public static boolean isString(final TypeMirror type) {
+        return type.toString().equals(STRING);
+    }
+
+    // reads from the {@code buffer} variable
+    public static String getDecode(final ProcessingEnvironment processingEnv, final TypeMirror type) {
+        if (isString(type)) {
+            return "getString(buffer)";
+        }
+
+        final var primitive = asPrimitive(processingEnv, type);
+        final var decode = primitive.getKind() == TypeKind.BOOLEAN
+                ? "buffer.get() != 0"
+                : String.format("buffer.get%s()", getSuffix(primitive));
+
+        return type.getKind().isPrimitive() ? decode : String.format("buffer.get() == 0 ? null : %s", decode);
+    }
+
+    public static String getSize(final ProcessingEnvironment processingEnv, final TypeMirror type, final String read) {
+        if (isString(type)) {
+            return String.format("getStringSize(%s)", read);
+        }
+
+        final var bytes = getBytes(asPrimitive(processingEnv, type));
+
+        return type.getKind().isPrimitive() ? bytes : String.format("(%s == null ? 1 : 1 + %s)", read, bytes);
+    }
+
+    // boxed values are read into the
+    // given local once, then checked
+    public static void writeEncode(
+            final DuhMapSourceWriter out,
+            final ProcessingEnvironment processingEnv,
+            final TypeMirror type,
+            final String read,
+            final String local
+    ) {
+        if (isString(type)) {
+            out.line(String.format("putString(buffer, %s);", read));
+            return;
+        }
+
+        final var primitive = asPrimitive(processingEnv, type);
+        if (type.getKind().isPrimitive()) {
+            out.line(getEncode(primitive, read));
+            return;
+        }
+
+        out.line(String.format("final var %s = %s;", local, read))
+                .open(String.format("if (%s == null)", local))
+                .line("buffer.put((byte) 0);")
+                .reopen("else")
+                .line("buffer.put((byte) 1);")
+                .line(getEncode(primitive, local))
+                .end();
+    }
+
+    // written once per class
+    // which encodes strings
+    public static void writeStringMethods(final DuhMapSourceWriter out) {
+        final var charsets = out.type("java.nio.charset.StandardCharsets");
+        final var byteBuffer = out.type("java.nio.ByteBuffer");
+        out.open(String.format("private static void putString(final %s buffer, final String value)", byteBuffer))
+                .open("if (value == null)")
+                .line("buffer.putInt(-1);")
+                .line("return;")
+                .end()
+                .line()
+                .line(String.format("final byte[] bytes = value.getBytes(%s.UTF_8);", charsets))
+                .line("buffer.putInt(bytes.length).put(bytes);")
+                .end()
+                .line()
+                .open(String.format("private static String getString(final %s buffer)", byteBuffer))
+                .line("final int length = buffer.getInt();")
+                .open("if (length < 0)")
+                .line("return null;")
+                .end()
+                .line()
+                .line("final byte[] bytes = new byte[length];")
+                .line("buffer.get(bytes);")
+                .line()
+                .line(String.format("return new String(bytes, %s.UTF_8);", charsets))
+                .end()
+                .line()
+                .line("// the UTF-8 length, counted without encoding. as")
+                .line("// in getBytes, unpaired surrogates are a '?' byte")
+                .open("private static int getStringSize(final String value)")
+                .open("if (value == null)")
+                .line("return Integer.BYTES;")
+                .end()
+                .line()
+                .line("int size = Integer.BYTES + value.length();")
+                .open("for (int i = 0; i < value.length(); i++)")
+                .line("final char c = value.charAt(i);")
+                .open("if (Character.isSurrogate(c))")
+                .open("if (Character.isHighSurrogate(c)"
+                        + " && i + 1 < value.length()"
+                        + " && Character.isLowSurrogate(value.charAt(i + 1)))")
+                .line("// a pair is 4 bytes")
+                .line("size += 2;")
+                .line("i++;")
+                .end()
+                .reopen("else if (c >= 0x800)")
+                .line("size += 2;")
+                .reopen("else if (c >= 0x80)")
+                .line("size++;")
+                .end()
+                .end()
+                .line()
+                .line("return size;")
+                .end()
+                .line();
+    }
+
+    private static String getEncode(final PrimitiveType primitive, final String read) {
+        if (primitive.getKind() == TypeKind.BOOLEAN) {
+            return String.format("buffer.put((byte) (%s ? 1 : 0));", read);
+        }
+
+        return String.format("buffer.put%s(%s);", getSuffix(primitive), read);
+    }
+
+    // e.g. putInt & getInt
+    private static String getSuffix(final PrimitiveType primitive) {
+        return switch (primitive.getKind()) {
+            case BYTE -> "";
+            case SHORT -> "Short";
+            case CHAR -> "Char";
+            case INT -> "Int";
+            case LONG -> "Long";
+            case FLOAT -> "Float";
+            case DOUBLE -> "Double";
+            default -> throw new IllegalArgumentException(primitive.toString());
+        };
+    }
+
+    private static String getBytes(final PrimitiveType primitive) {
+        return switch (primitive.getKind()) {
+            case BOOLEAN, BYTE -> "Byte.BYTES";
+            case SHORT -> "Short.BYTES";
+            case CHAR -> "Character.BYTES";
+            case INT -> "Integer.BYTES";
+            case LONG -> "Long.BYTES";
+            case FLOAT -> "Float.BYTES";
+            case DOUBLE -> "Double.BYTES";
+            default -> throw new IllegalArgumentException(primitive.toString());
+        };
+    }
+}
@@ -0,0 +1,882 @@
+package com.noydb.duhmap.kit;
+
+import java.util.List;
+
+import static com.noydb.duhmap.kit.DuhMapProcessorUtils.capitalize;
+
+/**
+ * Writes the methods mapping whole collections
+ * of sources through a single-object method.
+ * The source & target arguments are the names
+ * as they are referred to in the file.
+ */
+public final class DuhMapCollectionMethods {
+
+    private DuhMapCollectionMethods() {
+        // do not instantiate
+    }
+
+    // registered before the header is written,
+    // so that the methods can use simple names
+    public static List<String> getImports(final DuhMapCollectionType type) {
+        return switch (type) {
+            case LIST -> List.of("java.util.List", "java.util.ArrayList", "java.util.RandomAccess");
+            case SET -> List.of("java.util.Set", "java.util.LinkedHashSet");
+            case COLLECTION -> List.of("java.util.List", "java.util.ArrayList", "java.util.Collection");
+            case ITERABLE -> List.of("java.util.List", "java.util.ArrayList", "java.util.Collection");
+            case ARRAY -> List.of();
+            case MAP -> List.of(
+                    "java.util.Map",
+                    "java.util.EnumMap",
+                    "java.util.LinkedHashMap",
+                    "java.util.SortedMap",
+                    "java.util.TreeMap",
+                    "java.util.function.Function"
+            );
+            case STREAM -> List.of("java.util.stream.Stream");
+            case ITERATOR -> List.of("java.util.Iterator");
+            case PUBLISHER -> List.of("java.util.concurrent.Flow");
+            case CHUNKS -> List.of("java.util.List", "java.util.ArrayList", "java.util.function.Consumer");
+        };
+    }
+
+    public static List<String> getParallelImports() {
+        return List.of(
+                "java.util.List",
+                "java.util.ArrayList",
+                "java.util.Arrays",
+                "java.util.RandomAccess",
+                "java.util.concurrent.ForkJoinPool",
+                "java.util.concurrent.RecursiveAction"
+        );
+    }
+
+    public static List<String> getAsyncImports() {
+        return List.of(
+                "java.util.List",
+                "java.util.ArrayList",
+                "java.util.Arrays",
+                "java.util.RandomAccess",
+                "java.util.concurrent.CompletableFuture",
+                "java.util.concurrent.Executor",
+                "java.util.concurrent.Executors",
+                "java.util.concurrent.ForkJoinPool"
+        );
+    }
+
+    public static List<String> getMapIntoImports() {
+        return List.of("java.util.List", "java.util.ListIterator");
+    }
+
+    // the eager overloads map each element through
+    // the element method, which isn't counted itself.
+    // the lazy ones call the (counted) method as is
+    public static void write(
+            final DuhMapSourceWriter out,
+            final DuhMapCollectionType type,
+            final String target,
+            final String methodName,
+            final String elementMethod,
+            final String source,
+            final String className,
+            final boolean staticMethods,
+            final DuhMapProbe probe
+    ) {
+        final var modifiers = getModifiers(staticMethods);
+        switch (type) {
+            case LIST -> writeList(out, modifiers, target, methodName, elementMethod, source, probe);
+            case SET -> writeSet(out, modifiers, target, methodName, elementMethod, source, probe);
+            case COLLECTION -> writeCollection(out, modifiers, target, methodName, elementMethod, source, probe);
+            case ITERABLE -> writeIterable(out, modifiers, target, methodName, elementMethod, source, probe);
+            case ARRAY -> writeArray(out, modifiers, target, methodName, elementMethod, source, probe);
+            case MAP -> writeMap(out, modifiers, target, methodName, elementMethod, source, probe);
+            case STREAM -> writeStream(out, modifiers, target, methodName, source);
+            case ITERATOR -> writeIterator(out, modifiers, target, methodName, source, getSelf(className, staticMethods));
+            case PUBLISHER -> writePublisher(out, modifiers, target, methodName, source, className, staticMethods);
+            case CHUNKS -> writeChunks(out, modifiers, target, methodName, elementMethod, source, probe);
+        }
+        out.line();
+    }
+
+    private static void writeList(
+            final DuhMapSourceWriter out,
+            final String modifiers,
+            final String target,
+            final String methodName,
+            final String elementMethod,
+            final String source,
+            final DuhMapProbe probe
+    ) {
+        final var list = out.type("java.util.List");
+        out.open(String.format("%s %s<%s> %s(final %s<%s> sources)", modifiers, list, target, methodName, list, source));
+        probe.begin(out);
+        out.line(String.format(
+                        "final %s<%s> targets = new %s<>(sources.size());",
+                        list,
+                        target,
+                        out.type("java.util.ArrayList")
+                ))
+                .open(String.format("if (sources instanceof %s)", out.type("java.util.RandomAccess")))
+                .open("for (int i = 0, size = sources.size(); i < size; i++)")
+                .line(String.format("targets.add(%s(sources.get(i)));", elementMethod))
+                .end()
+                .reopen("else")
+                .open(String.format("for (final %s source : sources)", source))
+                .line(String.format("targets.add(%s(source));", elementMethod))
+                .end()
+                .end();
+        writeReturn(out, probe, "targets.size()");
+        out.end();
+    }
+
+    // presized so the set never rehashes
+    // while being filled
+    private static void writeSet(
+            final DuhMapSourceWriter out,
+            final String modifiers,
+            final String target,
+            final String methodName,
+            final String elementMethod,
+            final String source,
+            final DuhMapProbe probe
+    ) {
+        final var set = out.type("java.util.Set");
+        out.open(String.format("%s %s<%s> %s(final %s<%s> sources)", modifiers, set, target, methodName, set, source));
+        probe.begin(out);
+        out.line(String.format(
+                        "final %s<%s> targets = new %s<>((int) (sources.size() / 0.75f) + 1);",
+                        set,
+                        target,
+                        out.type("java.util.LinkedHashSet")
+                ));
+        writeLoop(out, elementMethod, source, probe);
+    }
+
+    private static void writeCollection(
+            final DuhMapSourceWriter out,
+            final String modifiers,
+            final String target,
+            final String methodName,
+            final String elementMethod,
+            final String source,
+            final DuhMapProbe probe
+    ) {
+        final var list = out.type("java.util.List");
+        out.open(String.format(
+                        "%s %s<%s> %s(final %s<%s> sources)",
+                        modifiers,
+                        list,
+                        target,
+                        methodName,
+                        out.type("java.util.Collection"),
+                        source
+                ));
+        probe.begin(out);
+        out.line(String.format(
+                        "final %s<%s> targets = new %s<>(sources.size());",
+                        list,
+                        target,
+                        out.type("java.util.ArrayList")
+                ));
+        writeLoop(out, elementMethod, source, probe);
+    }
+
+    private static void writeIterable(
+            final DuhMapSourceWriter out,
+            final String modifiers,
+            final String target,
+            final String methodName,
+            final String elementMethod,
+            final String source,
+            final DuhMapProbe probe
+    ) {
+        final var list = out.type("java.util.List");
+        final var arrayList = out.type("java.util.ArrayList");
+        out.open(String.format(
+                        "%s %s<%s> %s(final %s<%s> sources)",
+                        modifiers,
+                        list,
+                        target,
+                        methodName,
+                        out.type("java.lang.Iterable"),
+                        source
+                ));
+        probe.begin(out);
+        out.line(String.format(
+                        "final %s<%s> targets = sources instanceof %s<?> collection",
+                        list,
+                        target,
+                        out.type("java.util.Collection")
+                ))
+                .wrapped(String.format("? new %s<>(collection.size())", arrayList))
+                .wrapped(String.format(": new %s<>();", arrayList));
+        writeLoop(out, elementMethod, source, probe);
+    }
+
+    // fills the targets declared by the caller,
+    // then closes the method
+    private static void writeLoop(
+            final DuhMapSourceWriter out,
+            final String elementMethod,
+            final String source,
+            final DuhMapProbe probe
+    ) {
+        out.open(String.format("for (final %s source : sources)", source))
+                .line(String.format("targets.add(%s(source));", elementMethod))
+                .end();
+        writeReturn(out, probe, "targets.size()");
+        out.end();
+    }
+
+    private static void writeArray(
+            final DuhMapSourceWriter out,
+            final String modifiers,
+            final String target,
+            final String methodName,
+            final String elementMethod,
+            final String source,
+            final DuhMapProbe probe
+    ) {
+        out.open(String.format("%s %s[] %s(final %s[] sources)", modifiers, target, methodName, source));
+        probe.begin(out);
+        out.line(String.format("final %s[] targets = new %s[sources.length];", target, target))
+                .open("for (int i = 0; i < sources.length; i++)")
+                .line(String.format("targets[i] = %s(sources[i]);", elementMethod))
+                .end();
+        writeReturn(out, probe, "targets.length");
+        out.end();
+    }
+
+    /**
+     * Enum & tree maps are cloned, keeping their key
+     * type & order, & then have their values replaced
+     * in place - without any rehashing or rebalancing.
+     * Other sorted maps keep their comparator, the
+     * rest go into a presized {@code LinkedHashMap}.
+     */
+    private static void writeMap(
+            final DuhMapSourceWriter out,
+            final String modifiers,
+            final String target,
+            final String methodName,
+            final String elementMethod,
+            final String source,
+            final DuhMapProbe probe
+    ) {
+        final var map = out.type("java.util.Map");
+        final var linkedHashMap = out.type("java.util.LinkedHashMap");
+        out.line(String.format("@%s({\"unchecked\", \"rawtypes\"})", out.type("java.lang.SuppressWarnings")))
+                .open(String.format(
+                        "%s <K> %s<K, %s> %s(final %s<K, %s> sources)",
+                        modifiers,
+                        map,
+                        target,
+                        methodName,
+                        map,
+                        source
+                ));
+        probe.begin(out);
+        out.open(String.format("if (sources instanceof %s)", out.type("java.util.EnumMap")))
+                .line(String.format("final %s targets = ((%s) sources).clone();", map, out.type("java.util.EnumMap")))
+                .line(String.format("targets.replaceAll((key, source) -> %s((%s) source));", elementMethod, source));
+        writeReturn(out, probe, "targets.size()");
+        out.end()
+                .line()
+                .open(String.format("if (sources instanceof %s)", out.type("java.util.TreeMap")))
+                .line(String.format(
+                        "final %s targets = (%s) ((%s) sources).clone();",
+                        map,
+                        map,
+                        out.type("java.util.TreeMap")
+                ))
+                .line(String.format("targets.replaceAll((key, source) -> %s((%s) source));", elementMethod, source));
+        writeReturn(out, probe, "targets.size()");
+        out.end()
+                .line()
+                .line(String.format(
+                        "final %s<K, %s> targets = sources instanceof %s<K, %s> sorted",
+                        map,
+                        target,
+                        out.type("java.util.SortedMap"),
+                        source
+                ))
+                .wrapped(String.format("? new %s<>(sorted.comparator())", out.type("java.util.TreeMap")))
+                .wrapped(String.format(": new %s<>((int) (sources.size() / 0.75f) + 1);", linkedHashMap))
+                .open(String.format("for (final %s.Entry<K, %s> entry : sources.entrySet())", map, source))
+                .line(String.format("targets.put(entry.getKey(), %s(entry.getValue()));", elementMethod))
+                .end();
+        writeReturn(out, probe, "targets.size()");
+        out.end()
+                .line();
+
+        // the mapped keys may not be comparable
+        // (nor enums), so only the order is kept
+        out.open(String.format(
+                "%s <K, R> %s<R, %s> %s(final %s<K, %s> sources, final %s<? super K, ? extends R> keyMapper)",
+                modifiers,
+                map,
+                target,
+                methodName,
+                map,
+                source,
+                out.type("java.util.function.Function")
+        ));
+        probe.begin(out);
+        out.line(String.format(
+                        "final %s<R, %s> targets = new %s<>((int) (sources.size() / 0.75f) + 1);",
+                        map,
+                        target,
+                        linkedHashMap
+                ))
+                .open(String.format("for (final %s.Entry<K, %s> entry : sources.entrySet())", map, source))
+                .line(String.format("targets.put(keyMapper.apply(entry.getKey()), %s(entry.getValue()));", elementMethod))
+                .end();
+        writeReturn(out, probe, "targets.size()");
+        out.end();
+    }
+
+    // the probe ends with the targets filled,
+    // so it is able to count them
+    private static void writeReturn(
+            final DuhMapSourceWriter out,
+            final DuhMapProbe probe,
+            final String elements
+    ) {
+        probe.end(out, elements);
+        out.line()
+                .line("return targets;");
+    }
+
+    /**
+     * Only a single chunk is ever held, the same
+     * presized list being refilled after each
+     * hand-off. The sink must therefore copy (or
+     * fully consume) a chunk before returning.
+     */
+    private static void writeChunks(
+            final DuhMapSourceWriter out,
+            final String modifiers,
+            final String target,
+            final String methodName,
+            final String elementMethod,
+            final String source,
+            final DuhMapProbe probe
+    ) {
+        final var list = out.type("java.util.List");
+        out.open(String.format(
+                        "%s void %s(final %s<%s> sources, final int chunkSize, final %s<? super %s<%s>> sink)",
+                        modifiers,
+                        methodName,
+                        out.type("java.lang.Iterable"),
+                        source,
+                        out.type("java.util.function.Consumer"),
+                        list,
+                        target
+                ))
+                .open("if (chunkSize <= 0)")
+                .line(String.format(
+                        "throw new %s(\"chunkSize must be greater than zero, got \" + chunkSize);",
+                        out.type("java.lang.IllegalArgumentException")
+                ))
+                .end()
+                .line();
+        probe.begin(out);
+        out.line(String.format(
+                        "final %s<%s> chunk = new %s<>(chunkSize);",
+                        list,
+                        target,
+                        out.type("java.util.ArrayList")
+                ))
+                .line("long count = 0;")
+                .open(String.format("for (final %s source : sources)", source))
+                .line(String.format("chunk.add(%s(source));", elementMethod))
+                .open("if (chunk.size() == chunkSize)")
+                .line("sink.accept(chunk);")
+                .line("chunk.clear();")
+                .end()
+                .line("count++;")
+                .end()
+                .open("if (!chunk.isEmpty())")
+                .line("sink.accept(chunk);")
+                .end();
+        probe.end(out, "count");
+        out.end();
+    }
+
+    private static void writeStream(
+            final DuhMapSourceWriter out,
+            final String modifiers,
+            final String target,
+            final String methodName,
+            final String source
+    ) {
+        final var stream = out.type("java.util.stream.Stream");
+        out.open(String.format("%s %s<%s> %s(final %s<%s> sources)", modifiers, stream, target, methodName, stream, source))
+                .line(String.format("return sources.map(source -> %s(source));", methodName))
+                .end();
+    }
+
+    private static void writeIterator(
+            final DuhMapSourceWriter out,
+            final String modifiers,
+            final String target,
+            final String methodName,
+            final String source,
+            final String self
+    ) {
+        final var iterator = out.type("java.util.Iterator");
+        out.open(String.format(
+                        "%s %s<%s> %s(final %s<%s> sources)",
+                        modifiers,
+                        iterator,
+                        target,
+                        methodName,
+                        iterator,
+                        source
+                ))
+                .open(String.format("return new %s<>()", iterator))
+                .line("@Override")
+                .open("public boolean hasNext()")
+                .line("return sources.hasNext();")
+                .end()
+                .line()
+                .line("@Override")
+                .open(String.format("public %s next()", target))
+                .line(String.format("return %s.%s(sources.next());", self, methodName))
+                .end()
+                .line()
+                .line("@Override")
+                .open("public void remove()")
+                .line("sources.remove();")
+                .end()
+                .end(";")
+                .end();
+    }
+
+    // e.g. MapToProcessor
+    public static String getProcessorName(final String methodName) {
+        return capitalize(methodName) + "Processor";
+    }
+
+    /**
+     * Every subscription to the returned publisher
+     * gets its own processor, subscribed to the
+     * sources. The processor hands the upstream
+     * subscription itself to its subscriber, so
+     * demand & cancellation pass straight through,
+     * & maps each element as it arrives.
+     */
+    private static void writePublisher(
+            final DuhMapSourceWriter out,
+            final String modifiers,
+            final String target,
+            final String methodName,
+            final String source,
+            final String className,
+            final boolean staticMethods
+    ) {
+        final var flow = out.type("java.util.concurrent.Flow");
+        final var processorName = getProcessorName(methodName);
+        out.open(String.format(
+                        "%s %s.Publisher<%s> %s(final %s.Publisher<%s> sources)",
+                        modifiers,
+                        flow,
+                        target,
+                        methodName,
+                        flow,
+                        source
+                ))
+                .open("return subscriber ->")
+                .line(String.format("final %s processor = new %s();", processorName, processorName))
+                .line("processor.subscribe(subscriber);")
+                .line("sources.subscribe(processor);")
+                .end(";")
+                .end()
+                .line()
+                .open(String.format(
+                        "%s %s.Processor<%s, %s> %s()",
+                        modifiers,
+                        flow,
+                        source,
+                        target,
+                        methodName + "Processor"
+                ))
+                .line(String.format("return new %s();", processorName))
+                .end()
+                .line();
+
+        // the terminal signals are held until
+        // the subscriber arrives. only onNext
+        // is unsynchronised, as the upstream
+        // serialises its signals
+        out.open(String.format(
+                        "private %sfinal class %s implements %s.Processor<%s, %s>",
+                        staticMethods ? "static " : "",
+                        processorName,
+                        flow,
+                        source,
+                        target
+                ))
+                .line()
+                .line(String.format("private %s.Subscription subscription;", flow))
+                .line(String.format("private volatile %s.Subscriber<? super %s> subscriber;", flow, target))
+                .line("private Throwable error;")
+                .line("private boolean complete;")
+                .line("private volatile boolean failed;")
+                .line()
+                .line("@Override")
+                .open(String.format("public synchronized void subscribe(final %s.Subscriber<? super %s> subscriber)", flow, target))
+                .open("if (this.subscriber != null)")
+                .open(String.format("subscriber.onSubscribe(new %s.Subscription()", flow))
+                .line("@Override")
+                .open("public void request(final long n)")
+                .end()
+                .line()
+                .line("@Override")
+                .open("public void cancel()")
+                .end()
+                .end(");")
+                .line("subscriber.onError(new IllegalStateException(\"Only a single subscriber is supported\"));")
+                .line("return;")
+                .end()
+                .line()
+                .line("this.subscriber = subscriber;")
+                .open("if (subscription != null)")
+                .line("signalSubscription();")
+                .end()
+                .end()
+                .line()
+                .line("@Override")
+                .open(String.format("public synchronized void onSubscribe(final %s.Subscription subscription)", flow))
+                .open("if (this.subscription != null)")
+                .line("subscription.cancel();")
+                .line("return;")
+                .end()
+                .line()
+                .line("this.subscription = subscription;")
+                .open("if (subscriber != null)")
+                .line("signalSubscription();")
+                .end()
+                .end()
+                .line()
+                .line("@Override")
+                .open(String.format("public void onNext(final %s source)", source))
+                .open("if (failed)")
+                .line("return;")
+                .end()
+                .line()
+                .line(String.format("final %s target;", target))
+                .open("try")
+                .line(String.format("target = %s.%s(source);", getSelf(className, staticMethods), methodName))
+                .reopen("catch (final RuntimeException e)")
+                .line("failed = true;")
+                .line("subscription.cancel();")
+                .line("subscriber.onError(e);")
+                .line("return;")
+                .end()
+                .line("subscriber.onNext(target);")
+                .end()
+                .line()
+                .line("@Override")
+                .open("public synchronized void onError(final Throwable throwable)")
+                .open("if (failed)")
+                .line("return;")
+                .end()
+                .line()
+                .line("error = throwable;")
+                .open("if (subscriber != null)")
+                .line("subscriber.onError(throwable);")
+                .end()
+                .end()
+                .line()
+                .line("@Override")
+                .open("public synchronized void onComplete()")
+                .open("if (failed)")
+                .line("return;")
+                .end()
+                .line()
+                .line("complete = true;")
+                .open("if (subscriber != null)")
+                .line("subscriber.onComplete();")
+                .end()
+                .end()
+                .line()
+                .open("private void signalSubscription()")
+                .line("subscriber.onSubscribe(subscription);")
+                .open("if (error != null)")
+                .line("subscriber.onError(error);")
+                .reopen("else if (complete)")
+                .line("subscriber.onComplete();")
+                .end()
+                .end()
+                .end();
+    }
+
+    /**
+     * Each task writes its own slice of a presized
+     * array, so the input order is kept without any
+     * synchronisation.
+     */
+    public static void writeParallelList(
+            final DuhMapSourceWriter out,
+            final String target,
+            final String methodName,
+            final String elementMethod,
+            final String source,
+            final String className,
+            final String taskName,
+            final int threshold,
+            final boolean staticMethods,
+            final DuhMapProbe probe
+    ) {
+        final var modifiers = getModifiers(staticMethods);
+        final var list = out.type("java.util.List");
+        out.open(String.format(
+                "%s %s<%s> %sParallel(final %s<%s> sources)",
+                modifiers,
+                list,
+                target,
+                methodName,
+                list,
+                source
+        ));
+        probe.begin(out);
+        out.line(String.format(
+                        "final %s<%s> input = sources instanceof %s",
+                        list,
+                        source,
+                        out.type("java.util.RandomAccess")
+                ))
+                .wrapped("? sources")
+                .wrapped(String.format(": new %s<>(sources);", out.type("java.util.ArrayList")))
+                .line(String.format("final %s[] targets = new %s[input.size()];", target, target))
+                .line(String.format("final %s task = new %s(input, targets, 0, targets.length);", taskName, taskName))
+                .open(String.format("if (targets.length <= %d)", threshold))
+                .line("task.compute();")
+                .reopen("else")
+                .line(String.format("%s.commonPool().invoke(task);", out.type("java.util.concurrent.ForkJoinPool")))
+                .end();
+        probe.end(out, "targets.length");
+        out.line()
+                .line(String.format("return %s.asList(targets);", out.type("java.util.Arrays")))
+                .end()
+                .line();
+
+        // never serialized, tasks are only forked
+        out.line(String.format("@%s(\"serial\")", out.type("java.lang.SuppressWarnings")))
+                .open(String.format(
+                        "private %sfinal class %s extends %s",
+                        staticMethods ? "static " : "",
+                        taskName,
+                        out.type("java.util.concurrent.RecursiveAction")
+                ))
+                .line()
+                .line(String.format("private final %s<%s> sources;", list, source))
+                .line(String.format("private final %s[] targets;", target))
+                .line("private final int from;")
+                .line("private final int to;")
+                .line()
+                .line(String.format("private %s(", taskName))
+                .wrapped(String.format("final %s<%s> sources,", list, source))
+                .wrapped(String.format("final %s[] targets,", target))
+                .wrapped("final int from,")
+                .wrapped("final int to")
+                .open(")")
+                .line("this.sources = sources;")
+                .line("this.targets = targets;")
+                .line("this.from = from;")
+                .line("this.to = to;")
+                .end()
+                .line()
+                .line("@Override")
+                .open("protected void compute()")
+                .open(String.format("if (to - from <= %d)", threshold))
+                .open("for (int i = from; i < to; i++)")
+                .line(String.format("targets[i] = %s.%s(sources.get(i));", getSelf(className, staticMethods), elementMethod))
+                .end()
+                .line()
+                .line("return;")
+                .end()
+                .line()
+                .line("final int middle = (from + to) >>> 1;")
+                .line("invokeAll(")
+                .wrapped(String.format("new %s(sources, targets, from, middle),", taskName))
+                .wrapped(String.format("new %s(sources, targets, middle, to)", taskName))
+                .line(");")
+                .end()
+                .end()
+                .line();
+    }
+
+    /**
+     * Each chunk is mapped by its own task & writes
+     * its own slice of a presized array, as for the
+     * parallel list. Suits sources whose getters
+     * block, e.g. on lazily loaded proxies.
+     */
+    public static void writeAsyncList(
+            final DuhMapSourceWriter out,
+            final String target,
+            final String methodName,
+            final String elementMethod,
+            final String source,
+            final int chunkSize,
+            final boolean staticMethods,
+            final DuhMapProbe probe
+    ) {
+        final var modifiers = getModifiers(staticMethods);
+        final var list = out.type("java.util.List");
+        final var future = out.type("java.util.concurrent.CompletableFuture");
+        final var arrays = out.type("java.util.Arrays");
+        final var executor = out.type("java.util.concurrent.Executor");
+        out.open(String.format(
+                        "%s %s<%s<%s>> %sAsync(final %s<%s> sources, final %s executor)",
+                        modifiers,
+                        future,
+                        list,
+                        target,
+                        methodName,
+                        list,
+                        source,
+                        executor
+                ));
+        probe.begin(out);
+        out.line(String.format(
+                        "final %s<%s> input = sources instanceof %s",
+                        list,
+                        source,
+                        out.type("java.util.RandomAccess")
+                ))
+                .wrapped("? sources")
+                .wrapped(String.format(": new %s<>(sources);", out.type("java.util.ArrayList")))
+                .line(String.format("final %s[] targets = new %s[input.size()];", target, target))
+                // neither overflows, whatever the chunk size
+                .line(String.format(
+                        "final %s<?>[] chunks = new %s<?>[targets.length == 0 ? 0 : (targets.length - 1) / %d + 1];",
+                        future,
+                        future,
+                        chunkSize
+                ))
+                .open("for (int chunk = 0; chunk < chunks.length; chunk++)")
+                .line(String.format("final int from = chunk * %d;", chunkSize))
+                .line(String.format("final int to = from + Math.min(%d, targets.length - from);", chunkSize))
+                .open(String.format("chunks[chunk] = %s.runAsync(() ->", future))
+                .open("for (int i = from; i < to; i++)")
+                .line(String.format("targets[i] = %s(input.get(i));", elementMethod))
+                .end()
+                .end(", executor);")
+                .end()
+                .line();
+        // recorded once all the chunks are mapped
+        if (probe == DuhMapProbe.NONE) {
+            out.line(String.format("return %s.allOf(chunks).thenApply(done -> %s.asList(targets));", future, arrays));
+        } else {
+            out.open(String.format("return %s.allOf(chunks).thenApply(done ->", future));
+            probe.end(out, "targets.length");
+            out.line()
+                    .line(String.format("return %s.asList(targets);", arrays))
+                    .end(");");
+        }
+        out.end()
+                .line()
+                .open(String.format(
+                        "%s %s<%s<%s>> %sAsync(final %s<%s> sources)",
+                        modifiers,
+                        future,
+                        list,
+                        target,
+                        methodName,
+                        list,
+                        source
+                ))
+                .line(String.format("return %sAsync(sources, ASYNC_EXECUTOR);", methodName))
+                .end()
+                .line();
+    }
+
+    /**
+     * Written once per class using async methods.
+     * The generated code is compiled for Java 17, so
+     * virtual threads are only looked up at runtime.
+     */
+    public static void writeAsyncExecutor(final DuhMapSourceWriter out) {
+        final var executor = out.type("java.util.concurrent.Executor");
+        out.line(String.format("private static final %s ASYNC_EXECUTOR = getAsyncExecutor();", executor))
+                .line()
+                .open(String.format("private static %s getAsyncExecutor()", executor))
+                .open("try")
+                .line(String.format(
+                        "return (%s) %s.class.getMethod(\"newVirtualThreadPerTaskExecutor\").invoke(null);",
+                        executor,
+                        out.type("java.util.concurrent.Executors")
+                ))
+                .reopen("catch (final ReflectiveOperationException e)")
+                .line("// before java 21")
+                .line(String.format("return %s.commonPool();", out.type("java.util.concurrent.ForkJoinPool")))
+                .end()
+                .end()
+                .line();
+    }
+
+    /**
+     * Refills the caller's list, reusing the existing
+     * targets position by position & only creating
+     * new ones for the surplus sources.
+     */
+    public static void writeMapIntoList(
+            final DuhMapSourceWriter out,
+            final String target,
+            final String methodName,
+            final String elementMethod,
+            final String source,
+            final boolean staticMethods
+    ) {
+        final var modifiers = getModifiers(staticMethods);
+        final var list = out.type("java.util.List");
+        out.open(String.format(
+                        "%s void %s(final %s<%s> sources, final %s<%s> targets)",
+                        modifiers,
+                        methodName,
+                        list,
+                        source,
+                        list,
+                        target
+                ))
+                .line(String.format(
+                        "final %s<%s> iterator = targets.listIterator();",
+                        out.type("java.util.ListIterator"),
+                        target
+                ))
+                .line("int size = 0;")
+                .open(String.format("for (final %s source : sources)", source))
+                .line("size++;")
+                .open("if (!iterator.hasNext())")
+                .line(String.format("iterator.add(%s(source));", elementMethod))
+                .line("continue;")
+                .end()
+                .line()
+                .line(String.format("final %s target = iterator.next();", target))
+                .open("if (source == null || target == null)")
+                .line(String.format("iterator.set(%s(source));", elementMethod))
+                .reopen("else")
+                .line(String.format("%s(source, target);", methodName))
+                .end()
+                .end()
+                .line()
+                .open("if (targets.size() > size)")
+                .line("targets.subList(size, targets.size()).clear();")
+                .end()
+                .end()
+                .line();
+    }
+
+    private static String getModifiers(final boolean staticMethods) {
+        return staticMethods ? "public static" : "public";
+    }
+
+    // how the nested classes (iterators & tasks)
+    // call back into the generated class
+    private static String getSelf(final String className, final boolean staticMethods) {
+        return staticMethods ? className : className + ".this";
+    }
+}
@@ -0,0 +1,21 @@
+package com.noydb.duhmap.kit;
+
+public enum DuhMapCollectionType {
+    LIST,
+    SET,
+    COLLECTION,
+    ITERABLE,
+    ARRAY,
+    MAP,
+    // lazily mapped as elements are pulled
+    STREAM,
+    ITERATOR,
+    // handed to a sink a chunk at a time
+    CHUNKS,
+    // mapped as they are published
+    PUBLISHER;
+
+    public boolean isLazy() {
+        return this == STREAM || this == ITERATOR || this == PUBLISHER;
+    }
+}
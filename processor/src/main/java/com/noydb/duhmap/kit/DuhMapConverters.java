@@ -0,0 +1,148 @@
+package com.noydb.duhmap.kit;
+
+import com.noydb.duhmap.annotation.DuhMap;
+import com.noydb.duhmap.error.DuhMapException;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.MirroredTypesException;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.noydb.duhmap.kit.DuhMapProcessorUtils.asTypeElement;
+import static com.noydb.duhmap.kit.DuhMapProcessorUtils.getDefaultValue;
+import static com.noydb.duhmap.kit.DuhMapProcessorUtils.getFullyQualifiedName;
+import static com.noydb.duhmap.kit.DuhMapProcessorUtils.getName;
+
+/**
+ * Resolves fields whose source & target types
+ * differ to a public static, single argument
+ * method of one of the classes referenced
+ * through {@link DuhMap#converters()}, which
+ * is then called directly.
+ */
+public final class DuhMapConverters {
+
+    private DuhMapConverters() {
+        // do not instantiate
+    }
+
+    // in the declared order, so the first
+    // matching converter always wins
+    public static List<ExecutableElement> getConverters(
+            final ProcessingEnvironment processingEnv,
+            final TypeElement interfaceEl
+    ) {
+        final var converters = new ArrayList<ExecutableElement>();
+        try {
+            interfaceEl.getAnnotation(DuhMap.class).converters();
+        } catch (final MirroredTypesException e) {
+            for (final var typeMirror : e.getTypeMirrors()) {
+                final var converterEl = asTypeElement(processingEnv, typeMirror);
+                final var methods = ElementFilter.methodsIn(converterEl.getEnclosedElements())
+                        .stream()
+                        .filter(DuhMapConverters::isConverter)
+                        .toList();
+                if (methods.isEmpty()) {
+                    throw new DuhMapException(
+                            String.format(
+                                    "%s declares no public static, single argument converter methods",
+                                    getFullyQualifiedName(converterEl)
+                            ),
+                            interfaceEl
+                    );
+                }
+
+                converters.addAll(methods);
+            }
+        }
+
+        return converters;
+    }
+
+    /**
+     * Looks for a converter taking the source type &
+     * returning the target type, preferring an exact
+     * match over one only assignable either way.
+     * Null sources never reach the converter, the
+     * target gets its null default instead.
+     *
+     * @param nullDefault the value used for a null
+     *                    source, null for the
+     *                    target's default
+     * @return the call converting the given read
+     * expression, or null when no converter matches
+     */
+    public static String getConverterExpression(
+            final ProcessingEnvironment processingEnv,
+            final List<ExecutableElement> converters,
+            final TypeMirror sourceType,
+            final TypeMirror targetType,
+            final String read,
+            final String nullDefault
+    ) {
+        final var converterEl = findConverter(processingEnv, converters, sourceType, targetType);
+        if (converterEl == null) {
+            return null;
+        }
+
+        final var converterClass = getFullyQualifiedName((TypeElement) converterEl.getEnclosingElement());
+        final var call = String.format(
+                "%s.%s(%s)",
+                DuhMapSourceWriter.typeReference(converterClass),
+                getName(converterEl),
+                read
+        );
+        if (sourceType.getKind().isPrimitive()) {
+            return call;
+        }
+
+        return String.format(
+                "%s == null ? %s : %s",
+                read,
+                nullDefault != null ? nullDefault : getDefaultValue(targetType),
+                call
+        );
+    }
+
+    private static ExecutableElement findConverter(
+            final ProcessingEnvironment processingEnv,
+            final List<ExecutableElement> converters,
+            final TypeMirror sourceType,
+            final TypeMirror targetType
+    ) {
+        final var types = processingEnv.getTypeUtils();
+        for (final var converterEl : converters) {
+            if (types.isSameType(converterEl.getParameters().get(0).asType(), sourceType)
+                    && types.isSameType(converterEl.getReturnType(), targetType)) {
+                return converterEl;
+            }
+        }
+
+        for (final var converterEl : converters) {
+            if (types.isAssignable(sourceType, converterEl.getParameters().get(0).asType())
+                    && types.isAssignable(converterEl.getReturnType(), targetType)) {
+                return converterEl;
+            }
+        }
+
+        return null;
+    }
+
+    // generic converters are skipped, their
+    // type variables cannot be matched here
+    private static boolean isConverter(final ExecutableElement methodEl) {
+        final var modifiers = methodEl.getModifiers();
+
+        return modifiers.contains(Modifier.PUBLIC)
+                && modifiers.contains(Modifier.STATIC)
+                && methodEl.getParameters().size() == 1
+                && methodEl.getReturnType().getKind() != TypeKind.VOID
+                && methodEl.getTypeParameters().isEmpty();
+    }
+}
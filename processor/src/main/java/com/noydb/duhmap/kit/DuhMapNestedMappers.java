@@ -0,0 +1,252 @@
+package com.noydb.duhmap.kit;
+
+import com.noydb.duhmap.annotation.DuhMap;
+import com.noydb.duhmap.annotation.DuhMapMethod;
+import com.noydb.duhmap.error.DuhMapException;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.MirroredTypesException;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.noydb.duhmap.kit.DuhMapProcessorUtils.asTypeElement;
+import static com.noydb.duhmap.kit.DuhMapProcessorUtils.getCollectionTypes;
+import static com.noydb.duhmap.kit.DuhMapProcessorUtils.getConstantName;
+import static com.noydb.duhmap.kit.DuhMapProcessorUtils.getFullyQualifiedName;
+import static com.noydb.duhmap.kit.DuhMapProcessorUtils.getName;
+import static com.noydb.duhmap.kit.DuhMapProcessorUtils.getPackageName;
+
+/**
+ * Resolves fields whose source & target types
+ * differ to a method of the annotated interface
+ * itself, or of one of the mappers referenced
+ * through {@link DuhMap#uses()}.
+ */
+public final class DuhMapNestedMappers {
+
+    private DuhMapNestedMappers() {
+        // do not instantiate
+    }
+
+    // class values cannot be read during processing,
+    // they always come through as mirrors
+    public static List<TypeElement> getUsedMappers(
+            final ProcessingEnvironment processingEnv,
+            final TypeElement interfaceEl
+    ) {
+        final var usedMappers = new ArrayList<TypeElement>();
+        try {
+            interfaceEl.getAnnotation(DuhMap.class).uses();
+        } catch (final MirroredTypesException e) {
+            for (final var typeMirror : e.getTypeMirrors()) {
+                final var usedEl = asTypeElement(processingEnv, typeMirror);
+                if (usedEl.getKind() != ElementKind.INTERFACE || usedEl.getAnnotation(DuhMap.class) == null) {
+                    throw new DuhMapException(
+                            String.format(
+                                    "%s can only use interfaces annotated with @DuhMap",
+                                    getFullyQualifiedName(usedEl)
+                            ),
+                            interfaceEl
+                    );
+                }
+                // a spring bean's own used mappers are injected,
+                // it cannot be instantiated by the generated code
+                if (isSpringBean(usedEl) && !isSpringBean(interfaceEl)) {
+                    throw new DuhMapException(
+                            String.format(
+                                    "%s is a spring bean & can only be used by other spring bean mappers",
+                                    getFullyQualifiedName(usedEl)
+                            ),
+                            interfaceEl
+                    );
+                }
+
+                usedMappers.add(usedEl);
+            }
+        }
+
+        return usedMappers;
+    }
+
+    public static String getGeneratedClassName(final TypeElement interfaceEl) {
+        return String.format("%s.Duh%s", getPackageName(interfaceEl), getName(interfaceEl));
+    }
+
+    // spring beans get the used mappers injected,
+    // everything else holds its own instance. used
+    // mappers sharing a simple name are prefixed
+    // with their package
+    public static String getReferenceName(
+            final TypeElement interfaceEl,
+            final List<TypeElement> usedMappers,
+            final boolean injected
+    ) {
+        final var sharesName = usedMappers.stream()
+                .anyMatch(usedEl -> !usedEl.equals(interfaceEl) && getName(usedEl).equals(getName(interfaceEl)));
+        final var parts = new ArrayList<String>();
+        if (sharesName) {
+            parts.addAll(Arrays.asList(getPackageName(interfaceEl).split("\\.")));
+        }
+        parts.add(getName(interfaceEl));
+
+        if (injected) {
+            final var name = parts.stream().map(DuhMapProcessorUtils::capitalize).collect(Collectors.joining());
+            return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+        }
+
+        return parts.stream().map(DuhMapProcessorUtils::getConstantName).collect(Collectors.joining("_"));
+    }
+
+    /**
+     * Looks for a method mapping the source type to
+     * the target type, first in the annotated interface
+     * & then in the mappers it uses. {@code List},
+     * {@code Set} & {@code Map} fields are mapped
+     * through the LIST, SET & MAP overloads of the
+     * found method.
+     *
+     * @return the call mapping the given read expression,
+     * or null when no method maps between the two types
+     */
+    public static String getNestedMappingExpression(
+            final ProcessingEnvironment processingEnv,
+            final TypeElement interfaceEl,
+            final List<TypeElement> usedMappers,
+            final TypeMirror sourceType,
+            final TypeMirror targetType,
+            final String read
+    ) {
+        final var injected = isSpringBean(interfaceEl);
+        final var collectionType = getCollectionType(processingEnv, sourceType, targetType);
+
+        final var candidates = new ArrayList<TypeElement>();
+        candidates.add(interfaceEl);
+        candidates.addAll(usedMappers);
+
+        for (final var candidateEl : candidates) {
+            final var receiver = getReceiver(interfaceEl, usedMappers, candidateEl, injected);
+
+            for (final var methodEl : getMappedMethods(candidateEl)) {
+                if (collectionType == null && maps(processingEnv, methodEl, sourceType, targetType)) {
+                    return String.format("%s == null ? null : %s%s(%s)", read, receiver, getName(methodEl), read);
+                }
+
+                if (collectionType != null
+                        && getCollectionTypes(methodEl.getAnnotation(DuhMapMethod.class)).contains(collectionType)
+                        && maps(processingEnv, methodEl, getElementType(sourceType), getElementType(targetType))) {
+                    return String.format("%s == null ? null : %s%s(%s)", read, receiver, getName(methodEl), read);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    // static mappers are never instantiated,
+    // their methods are called on the class
+    private static String getReceiver(
+            final TypeElement interfaceEl,
+            final List<TypeElement> usedMappers,
+            final TypeElement candidateEl,
+            final boolean injected
+    ) {
+        if (candidateEl.equals(interfaceEl)) {
+            return "";
+        }
+
+        if (isStatic(candidateEl)) {
+            return DuhMapSourceWriter.typeReference(getGeneratedClassName(candidateEl)) + ".";
+        }
+
+        return getReferenceName(candidateEl, usedMappers, injected) + ".";
+    }
+
+    public static boolean isStatic(final TypeElement interfaceEl) {
+        return interfaceEl.getAnnotation(DuhMap.class).beanType() == DuhMapClassType.STATIC;
+    }
+
+    private static boolean isSpringBean(final TypeElement interfaceEl) {
+        return interfaceEl.getAnnotation(DuhMap.class).beanType() == DuhMapClassType.SPRING_BEAN;
+    }
+
+    private static List<ExecutableElement> getMappedMethods(final TypeElement interfaceEl) {
+        final var ignoredMethods = Arrays.asList(interfaceEl.getAnnotation(DuhMap.class).ignoredMethods());
+
+        return ElementFilter.methodsIn(interfaceEl.getEnclosedElements())
+                .stream()
+                .filter(methodEl -> methodEl.getParameters().size() == 1)
+                .filter(methodEl -> !ignoredMethods.contains(getName(methodEl)))
+                .filter(methodEl -> {
+                    final var annotation = methodEl.getAnnotation(DuhMapMethod.class);
+                    return annotation == null || !annotation.ignore();
+                })
+                .toList();
+    }
+
+    private static boolean maps(
+            final ProcessingEnvironment processingEnv,
+            final ExecutableElement methodEl,
+            final TypeMirror sourceType,
+            final TypeMirror targetType
+    ) {
+        final var types = processingEnv.getTypeUtils();
+
+        return types.isSameType(methodEl.getParameters().get(0).asType(), sourceType)
+                && types.isSameType(methodEl.getReturnType(), targetType);
+    }
+
+    // only lists, sets & maps (with the same keys) are
+    // supported, as their overloads return the same
+    // kind of collection
+    private static DuhMapCollectionType getCollectionType(
+            final ProcessingEnvironment processingEnv,
+            final TypeMirror sourceType,
+            final TypeMirror targetType
+    ) {
+        if (sourceType.getKind() != TypeKind.DECLARED || targetType.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+
+        final var types = processingEnv.getTypeUtils();
+        final var sourceErasure = types.erasure(sourceType).toString();
+        if (!sourceErasure.equals(types.erasure(targetType).toString())
+                || getElementType(sourceType) == null
+                || getElementType(targetType) == null) {
+            return null;
+        }
+
+        return switch (sourceErasure) {
+            case "java.util.List" -> DuhMapCollectionType.LIST;
+            case "java.util.Set" -> DuhMapCollectionType.SET;
+            case "java.util.Map" -> hasSameKeys(processingEnv, sourceType, targetType) ? DuhMapCollectionType.MAP : null;
+            default -> null;
+        };
+    }
+
+    // the values, in the case of a map
+    private static TypeMirror getElementType(final TypeMirror collectionType) {
+        final var typeArguments = ((DeclaredType) collectionType).getTypeArguments();
+
+        return typeArguments.isEmpty() ? null : typeArguments.get(typeArguments.size() - 1);
+    }
+
+    private static boolean hasSameKeys(
+            final ProcessingEnvironment processingEnv,
+            final TypeMirror sourceType,
+            final TypeMirror targetType
+    ) {
+        return processingEnv.getTypeUtils().isSameType(
+                ((DeclaredType) sourceType).getTypeArguments().get(0),
+                ((DeclaredType) targetType).getTypeArguments().get(0)
+        );
+    }
+}
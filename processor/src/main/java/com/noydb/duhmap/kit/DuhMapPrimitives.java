@@ -0,0 +1,102 @@
+package com.noydb.duhmap.kit;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+
+import static com.noydb.duhmap.kit.DuhMapProcessorUtils.getDefaultValue;
+
+/**
+ * Converts between fields which only differ in
+ * boxing or by a widening primitive conversion,
+ * e.g. {@code int} to {@code Long}, without going
+ * through any intermediate boxed value.
+ */
+public final class DuhMapPrimitives {
+
+    private DuhMapPrimitives() {
+        // do not instantiate
+    }
+
+    /**
+     * @param nullDefault the value used when a boxed
+     *                    source is null but the target
+     *                    is primitive, null for the
+     *                    primitive's default
+     * @return the converted read expression, or null
+     * when the types are not convertible this way
+     */
+    public static String getConversion(
+            final ProcessingEnvironment processingEnv,
+            final TypeMirror sourceType,
+            final TypeMirror targetType,
+            final String read,
+            final String nullDefault
+    ) {
+        final var source = asPrimitive(processingEnv, sourceType);
+        final var target = asPrimitive(processingEnv, targetType);
+        if (source == null || target == null || !isWidening(processingEnv, source, target)) {
+            return null;
+        }
+
+        final var sourceBoxed = !sourceType.getKind().isPrimitive();
+        final var targetBoxed = !targetType.getKind().isPrimitive();
+        final var sameKind = source.getKind() == target.getKind();
+
+        if (!sourceBoxed) {
+            // boxing (or widening) is left to javac, only
+            // a widened boxed target needs the cast
+            return targetBoxed && !sameKind ? String.format("(%s) %s", target, read) : read;
+        }
+
+        if (targetBoxed) {
+            return sameKind ? read : String.format("%s == null ? null : (%s) %s", read, target, read);
+        }
+
+        return String.format(
+                "%s == null ? %s : %s",
+                read,
+                nullDefault != null ? nullDefault : getDefaultValue(target),
+                read
+        );
+    }
+
+    // copied, so the source & target
+    // never share the same array
+    public static String getArrayCopy(final TypeMirror type, final String read) {
+        if (type.getKind() != TypeKind.ARRAY || !((ArrayType) type).getComponentType().getKind().isPrimitive()) {
+            return null;
+        }
+
+        return String.format(
+                "%s == null ? null : %s.copyOf(%s, %s.length)",
+                read,
+                DuhMapSourceWriter.typeReference("java.util.Arrays"),
+                read,
+                read
+        );
+    }
+
+    static PrimitiveType asPrimitive(final ProcessingEnvironment processingEnv, final TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return (PrimitiveType) type;
+        }
+
+        try {
+            return processingEnv.getTypeUtils().unboxedType(type);
+        } catch (final IllegalArgumentException e) {
+            // not a boxed type
+            return null;
+        }
+    }
+
+    private static boolean isWidening(
+            final ProcessingEnvironment processingEnv,
+            final PrimitiveType source,
+            final PrimitiveType target
+    ) {
+        return processingEnv.getTypeUtils().isAssignable(source, target);
+    }
+}
@@ -0,0 +1,55 @@
+package com.noydb.duhmap.kit;
+
+/**
+ * The statements wrapped around the body of a
+ * generated method to record its metrics & JFR
+ * event. Nothing is written for mappers which
+ * aren't instrumented.
+ */
+public final class DuhMapProbe {
+
+    public static final String EVENT = "com.noydb.duhmap.metrics.DuhMapEvent";
+
+    public static final DuhMapProbe NONE = new DuhMapProbe(null, null, null);
+
+    private final String metricsField;
+    private final String eventMapper;
+    private final String eventMethod;
+
+    /**
+     * @param metricsField null when not counted
+     * @param eventMapper  null when no event is recorded
+     */
+    public DuhMapProbe(final String metricsField, final String eventMapper, final String eventMethod) {
+        this.metricsField = metricsField;
+        this.eventMapper = eventMapper;
+        this.eventMethod = eventMethod;
+    }
+
+    public void begin(final DuhMapSourceWriter out) {
+        if (metricsField != null) {
+            out.line("final long startNanos = System.nanoTime();");
+        }
+        if (eventMapper != null) {
+            final var event = out.type(EVENT);
+            out.line(String.format("final %s mappingEvent = new %s();", event, event))
+                    .line("mappingEvent.begin();");
+        }
+    }
+
+    // the elements are only counted
+    // once the mapping is done
+    public void end(final DuhMapSourceWriter out, final String elements) {
+        if (metricsField != null) {
+            out.line(String.format("%s.record(%s, startNanos);", metricsField, elements));
+        }
+        if (eventMapper != null) {
+            out.line(String.format(
+                    "mappingEvent.record(\"%s\", \"%s\", %s);",
+                    eventMapper,
+                    eventMethod,
+                    elements
+            ));
+        }
+    }
+}
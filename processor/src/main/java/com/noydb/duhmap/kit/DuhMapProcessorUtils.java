@@ -1,17 +1,27 @@
 package com.noydb.duhmap.kit;
 
 import com.noydb.duhmap.DuhMapAnnotationProcessor;
+import com.noydb.duhmap.annotation.DuhMapMethod;
 import com.noydb.duhmap.error.DuhMapException;
 
 import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationValue;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
 import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public final class DuhMapProcessorUtils {
 
@@ -25,6 +35,15 @@ public final class DuhMapProcessorUtils {
         return element.getSimpleName().toString();
     }
 
+    public static String capitalize(final String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    // e.g. firstName to FIRST_NAME
+    public static String getConstantName(final String name) {
+        return name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase();
+    }
+
     public static String getFullyQualifiedName(final TypeElement element) {
         return String.format(
                 "%s.%s",
@@ -44,6 +63,7 @@ public final class DuhMapProcessorUtils {
             if (!kind.isField()
                     || kind.equals(ElementKind.CLASS)
                     || kind.equals(ElementKind.INTERFACE)
+                    || field.getModifiers().contains(Modifier.STATIC)
             ) continue;
 
             sourceFields.add((VariableElement) field);
@@ -52,6 +72,123 @@ public final class DuhMapProcessorUtils {
         return sourceFields;
     }
 
+    // mapList & mapMap are shorthands for
+    // LIST & MAP, so they are folded in here
+    public static Set<DuhMapCollectionType> getCollectionTypes(final DuhMapMethod annotation) {
+        final var types = EnumSet.noneOf(DuhMapCollectionType.class);
+        if (annotation == null) {
+            return types;
+        }
+
+        types.addAll(Arrays.asList(annotation.collections()));
+        if (annotation.mapList()) {
+            types.add(DuhMapCollectionType.LIST);
+        }
+        if (annotation.mapMap()) {
+            types.add(DuhMapCollectionType.MAP);
+        }
+
+        return types;
+    }
+
+    public static boolean isRecord(final TypeElement classEl) {
+        return classEl.getKind() == ElementKind.RECORD;
+    }
+
+    // records can only be built through their
+    // canonical constructor
+    public static boolean isConstructorMapped(final TypeElement targetClassEl, final DuhMapMethod annotation) {
+        return isRecord(targetClassEl) || annotation != null && annotation.useConstructor();
+    }
+
+    /**
+     * Resolves the constructor used to instantiate
+     * the given class, in order of preference: the
+     * canonical constructor of a record, one annotated
+     * with {@code @ConstructorProperties}, or one whose
+     * parameter names match the class's fields.
+     *
+     * @return the property (field) names in parameter
+     * order, mapped to the parameter types
+     */
+    public static Map<String, TypeMirror> getConstructorProperties(final TypeElement classEl) {
+        final var properties = new LinkedHashMap<String, TypeMirror>();
+        if (isRecord(classEl)) {
+            for (final var component : classEl.getRecordComponents()) {
+                properties.put(getName(component), component.asType());
+            }
+
+            return properties;
+        }
+
+        final var constructors = ElementFilter.constructorsIn(classEl.getEnclosedElements())
+                .stream()
+                .filter(constructor -> !constructor.getModifiers().contains(Modifier.PRIVATE))
+                .toList();
+
+        // the annotation is matched by name as
+        // java.beans is not necessarily resolvable
+        for (final var constructor : constructors) {
+            for (final var mirror : constructor.getAnnotationMirrors()) {
+                if (!mirror.getAnnotationType().toString().equals("java.beans.ConstructorProperties")) {
+                    continue;
+                }
+
+                final var names = mirror.getElementValues().values().iterator().next().getValue();
+                final var parameters = constructor.getParameters();
+                int i = 0;
+                for (final var name : (List<?>) names) {
+                    properties.put(
+                            ((AnnotationValue) name).getValue().toString(),
+                            parameters.get(i++).asType()
+                    );
+                }
+
+                return properties;
+            }
+        }
+
+        final var fieldNames = new HashSet<String>();
+        for (final var field : getFields(classEl)) {
+            fieldNames.add(getName(field));
+        }
+
+        for (final var constructor : constructors) {
+            final var parameterNames = constructor.getParameters()
+                    .stream()
+                    .map(DuhMapProcessorUtils::getName)
+                    .toList();
+            if (parameterNames.size() == fieldNames.size() && fieldNames.containsAll(parameterNames)) {
+                for (final var parameter : constructor.getParameters()) {
+                    properties.put(getName(parameter), parameter.asType());
+                }
+
+                return properties;
+            }
+        }
+
+        throw new DuhMapException(
+                String.format(
+                        "Unable to find a @ConstructorProperties or all-args constructor in %s",
+                        getFullyQualifiedName(classEl)
+                )
+        );
+    }
+
+    public static String getDefaultValue(final TypeMirror type) {
+        return switch (type.getKind()) {
+            case BOOLEAN -> "false";
+            case BYTE -> "(byte) 0";
+            case SHORT -> "(short) 0";
+            case CHAR -> "(char) 0";
+            case INT -> "0";
+            case LONG -> "0L";
+            case FLOAT -> "0F";
+            case DOUBLE -> "0D";
+            default -> "null";
+        };
+    }
+
     public static String getPackageName(final TypeElement interfaceOrClassEl) {
         final var enclosingElement = interfaceOrClassEl.getEnclosingElement();
 
@@ -0,0 +1,203 @@
+package com.noydb.duhmap.kit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Writes a generated source file line by line,
+ * straight through to the underlying writer. It
+ * keeps track of the indentation & of the imports,
+ * which have to be registered before the header is
+ * written, as they come first in the file.
+ */
+public final class DuhMapSourceWriter implements Closeable {
+
+    private static final String INDENT = "    ";
+    // backticks never appear in java code
+    private static final Pattern TYPE_REFERENCE = Pattern.compile("`([\\w.$]+)`");
+
+    private final Writer out;
+    private final String packageName;
+    // simple name -> fully qualified name
+    private final Map<String, String> imports = new TreeMap<>();
+    private final Set<String> reservedNames = new HashSet<>();
+    private int indentation;
+
+    public DuhMapSourceWriter(final Writer out, final String packageName) {
+        this.out = out;
+        this.packageName = packageName;
+    }
+
+    /**
+     * Keeps a simple name from being imported, e.g.
+     * because a class of the same name is declared
+     * or referenced unqualified in the file.
+     */
+    public void reserve(final String simpleName) {
+        reservedNames.add(simpleName);
+    }
+
+    // the first type registered under a simple
+    // name wins, any others stay fully qualified
+    public void addImport(final String fullyQualifiedName) {
+        final var simpleName = getSimpleName(fullyQualifiedName);
+        if (simpleName.equals(fullyQualifiedName)
+                || reservedNames.contains(simpleName)
+                || isJavaLang(fullyQualifiedName)) {
+            return;
+        }
+
+        imports.putIfAbsent(simpleName, fullyQualifiedName);
+    }
+
+    // every type referenced in code built
+    // before the imports were registered
+    public void addImports(final String code) {
+        if (code == null) {
+            return;
+        }
+
+        final var matcher = TYPE_REFERENCE.matcher(code);
+        while (matcher.find()) {
+            addImport(matcher.group(1));
+        }
+    }
+
+    /**
+     * Refers to a type from code built before the
+     * file's imports are known, i.e. by the model.
+     * The reference is resolved through
+     * {@link #type(String)} when the line is written.
+     */
+    public static String typeReference(final String fullyQualifiedName) {
+        return "`" + fullyQualifiedName + "`";
+    }
+
+    /**
+     * @return how the given type is referred to in the
+     * file, i.e. its simple name when imported (or in
+     * {@code java.lang}), otherwise its full name
+     */
+    public String type(final String fullyQualifiedName) {
+        final var simpleName = getSimpleName(fullyQualifiedName);
+        if (fullyQualifiedName.equals(imports.get(simpleName))) {
+            return simpleName;
+        }
+
+        if (isJavaLang(fullyQualifiedName) && !imports.containsKey(simpleName) && !reservedNames.contains(simpleName)) {
+            return simpleName;
+        }
+
+        return fullyQualifiedName;
+    }
+
+    // imports of the file's own package
+    // are left out, as they are redundant
+    public DuhMapSourceWriter header() {
+        line("package " + packageName + ";");
+        line();
+        for (final var fullyQualifiedName : new TreeSet<>(imports.values())) {
+            if (!fullyQualifiedName.equals(packageName + "." + getSimpleName(fullyQualifiedName))) {
+                line("import " + fullyQualifiedName + ";");
+            }
+        }
+
+        return line();
+    }
+
+    public DuhMapSourceWriter line(final String code) {
+        try {
+            for (int i = 0; i < indentation; i++) {
+                out.write(INDENT);
+            }
+            out.write(resolveTypeReferences(code));
+            out.write('\n');
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return this;
+    }
+
+    public DuhMapSourceWriter line() {
+        try {
+            out.write('\n');
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return this;
+    }
+
+    // a continuation of the previous line,
+    // indented twice like the rest of the repo
+    public DuhMapSourceWriter wrapped(final String code) {
+        indentation += 2;
+        line(code);
+        indentation -= 2;
+
+        return this;
+    }
+
+    /**
+     * Writes the given line followed by an opening
+     * brace, indenting everything up to the matching
+     * {@link #end()}.
+     */
+    public DuhMapSourceWriter open(final String code) {
+        line(code + " {");
+        indentation++;
+
+        return this;
+    }
+
+    // e.g. "} else {"
+    public DuhMapSourceWriter reopen(final String code) {
+        indentation--;
+        line("} " + code + " {");
+        indentation++;
+
+        return this;
+    }
+
+    public DuhMapSourceWriter end() {
+        return end("");
+    }
+
+    // e.g. "};" for anonymous classes
+    public DuhMapSourceWriter end(final String suffix) {
+        indentation--;
+
+        return line("}" + suffix);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private String resolveTypeReferences(final String code) {
+        if (code.indexOf('`') < 0) {
+            return code;
+        }
+
+        return TYPE_REFERENCE.matcher(code).replaceAll(result -> Matcher.quoteReplacement(type(result.group(1))));
+    }
+
+    private static String getSimpleName(final String fullyQualifiedName) {
+        return fullyQualifiedName.substring(fullyQualifiedName.lastIndexOf('.') + 1);
+    }
+
+    private static boolean isJavaLang(final String fullyQualifiedName) {
+        return fullyQualifiedName.equals("java.lang." + getSimpleName(fullyQualifiedName));
+    }
+}
@@ -0,0 +1,46 @@
+package com.noydb.duhmap.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Recorded by the bulk methods of mappers generated
+ * with {@code @DuhMap(events = true)}. Disabled by
+ * default, a recording has to enable it (e.g. in its
+ * {@code .jfc} settings) for it to be committed.
+ */
+@Name(DuhMapEvent.NAME)
+@Label("DuhMap Mapping")
+@Category("DuhMap")
+@Description("A bulk call of a generated mapper")
+@Enabled(false)
+public final class DuhMapEvent extends Event {
+
+    public static final String NAME = "com.noydb.duhmap.Mapping";
+
+    @Label("Mapper")
+    String mapper;
+
+    @Label("Method")
+    String method;
+
+    @Label("Elements")
+    long elements;
+
+    // the fields are only filled in
+    // when the event is committed
+    public void record(final String mapper, final String method, final long elements) {
+        if (!shouldCommit()) {
+            return;
+        }
+
+        this.mapper = mapper;
+        this.method = method;
+        this.elements = elements;
+        commit();
+    }
+}
@@ -0,0 +1,68 @@
+package com.noydb.duhmap.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The counters of one generated method. These are
+ * {@link LongAdder}s, so concurrent mapping threads
+ * never contend on a single value.
+ */
+public final class DuhMapMethodMetrics {
+
+    private final String mapper;
+    private final String method;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder elements = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+
+    DuhMapMethodMetrics(final String mapper, final String method) {
+        this.mapper = mapper;
+        this.method = method;
+    }
+
+    // called by the generated methods
+    // once they are done mapping
+    public void record(final long mappedElements, final long startNanos) {
+        nanos.add(System.nanoTime() - startNanos);
+        elements.add(mappedElements);
+        calls.increment();
+    }
+
+    public String getMapper() {
+        return mapper;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getElements() {
+        return elements.sum();
+    }
+
+    public long getNanos() {
+        return nanos.sum();
+    }
+
+    public void reset() {
+        calls.reset();
+        elements.reset();
+        nanos.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%s#%s: calls=%d, elements=%d, nanos=%d",
+                mapper,
+                method,
+                getCalls(),
+                getElements(),
+                getNanos()
+        );
+    }
+}
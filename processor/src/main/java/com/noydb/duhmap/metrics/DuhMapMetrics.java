@@ -0,0 +1,94 @@
+package com.noydb.duhmap.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * Registry of the metrics recorded by mappers
+ * generated with {@code @DuhMap(metrics = true)}.
+ * Each generated method registers its counters
+ * once, when its class is initialised.
+ */
+public final class DuhMapMetrics {
+
+    public static final String OBJECT_NAME = "com.noydb.duhmap:type=DuhMapMetrics";
+
+    private static final Map<String, DuhMapMethodMetrics> METRICS = new ConcurrentHashMap<>();
+
+    private DuhMapMetrics() {
+        // do not instantiate
+    }
+
+    public static DuhMapMethodMetrics register(final String mapper, final String method) {
+        return METRICS.computeIfAbsent(mapper + "#" + method, key -> new DuhMapMethodMetrics(mapper, method));
+    }
+
+    /**
+     * @return null when the method isn't instrumented,
+     * or its class hasn't been initialised yet
+     */
+    public static DuhMapMethodMetrics get(final String mapper, final String method) {
+        return METRICS.get(mapper + "#" + method);
+    }
+
+    // ordered by mapper & method
+    public static List<DuhMapMethodMetrics> getAll() {
+        return List.copyOf(new TreeMap<>(METRICS).values());
+    }
+
+    public static void reset() {
+        METRICS.values().forEach(DuhMapMethodMetrics::reset);
+    }
+
+    /**
+     * Exposes the metrics through the platform MBean
+     * server, under {@link #OBJECT_NAME}. Calling it
+     * more than once has no further effect.
+     */
+    public static void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new MXBean(), new ObjectName(OBJECT_NAME));
+        } catch (final InstanceAlreadyExistsException e) {
+            // already registered
+        } catch (final JMException e) {
+            throw new IllegalStateException("Unable to register the DuhMap metrics MBean", e);
+        }
+    }
+
+    private static Map<String, Long> collect(final ToLongFunction<DuhMapMethodMetrics> counter) {
+        final var values = new TreeMap<String, Long>();
+        METRICS.forEach((key, metrics) -> values.put(key, counter.applyAsLong(metrics)));
+
+        return values;
+    }
+
+    private static final class MXBean implements DuhMapMetricsMXBean {
+
+        @Override
+        public Map<String, Long> getCalls() {
+            return collect(DuhMapMethodMetrics::getCalls);
+        }
+
+        @Override
+        public Map<String, Long> getElements() {
+            return collect(DuhMapMethodMetrics::getElements);
+        }
+
+        @Override
+        public Map<String, Long> getNanos() {
+            return collect(DuhMapMethodMetrics::getNanos);
+        }
+
+        @Override
+        public void reset() {
+            DuhMapMetrics.reset();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.noydb.duhmap.metrics;
+
+import java.util.Map;
+
+/**
+ * The counters of all instrumented methods, keyed
+ * by {@code mapper#method}, as exposed over JMX.
+ */
+public interface DuhMapMetricsMXBean {
+
+    Map<String, Long> getCalls();
+
+    Map<String, Long> getElements();
+
+    Map<String, Long> getNanos();
+
+    void reset();
+}
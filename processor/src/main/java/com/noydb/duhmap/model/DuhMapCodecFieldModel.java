@@ -0,0 +1,72 @@
+package com.noydb.duhmap.model;
+
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * A field of the target as encoded by its codec,
+ * in the order it is written to & read from the
+ * buffer.
+ */
+public final class DuhMapCodecFieldModel {
+
+    private final String name;
+    private final TypeMirror type;
+    private final String read;
+    private final String decode;
+    private final String writeStatement;
+
+    public DuhMapCodecFieldModel(
+            final String name,
+            final TypeMirror type,
+            final String read,
+            final String decode,
+            final String writeStatement
+    ) {
+        this.name = name;
+        this.type = type;
+        this.read = read;
+        this.decode = decode;
+        this.writeStatement = writeStatement;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public TypeMirror getType() {
+        return type;
+    }
+
+    /**
+     * @return the expression reading the
+     * field of the encoded {@code value}
+     */
+    public String getRead() {
+        return read;
+    }
+
+    /**
+     * @return the local the encoded field
+     * is read into, when it is checked
+     */
+    public String getLocal() {
+        return DuhMapFieldModel.getSourceLocal(name);
+    }
+
+    /**
+     * @return the expression reading the
+     * field's value from {@code buffer}
+     */
+    public String getDecode() {
+        return decode;
+    }
+
+    /**
+     * @return the statement writing the decoded
+     * value to {@code target}, null when the
+     * target is built through its constructor
+     */
+    public String getWriteStatement() {
+        return writeStatement;
+    }
+}
@@ -0,0 +1,56 @@
+package com.noydb.duhmap.model;
+
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * A column of the columnar container: one array
+ * per mapped field, holding the target's values.
+ */
+public final class DuhMapColumnModel {
+
+    private final String name;
+    private final TypeMirror type;
+    private final String value;
+    private final String writeStatement;
+
+    public DuhMapColumnModel(
+            final String name,
+            final TypeMirror type,
+            final String value,
+            final String writeStatement
+    ) {
+        this.name = name;
+        this.type = type;
+        this.value = value;
+        this.writeStatement = writeStatement;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the target field's type,
+     * i.e. the array's component type
+     */
+    public TypeMirror getType() {
+        return type;
+    }
+
+    /**
+     * @return the expression producing the
+     * column's value from {@code source}
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * @return the statement writing the value at
+     * row {@code i} to {@code target}, null when the
+     * target is built through its constructor
+     */
+    public String getWriteStatement() {
+        return writeStatement;
+    }
+}
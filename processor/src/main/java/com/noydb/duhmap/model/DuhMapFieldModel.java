@@ -0,0 +1,159 @@
+package com.noydb.duhmap.model;
+
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+
+import static com.noydb.duhmap.kit.DuhMapProcessorUtils.capitalize;
+
+/**
+ * A source field paired with its target
+ * counterpart (matched by name), with the
+ * accessors already resolved.
+ */
+public final class DuhMapFieldModel {
+
+    private final String name;
+    private final VariableElement sourceField;
+    private final TypeMirror targetType;
+    private final boolean ignored;
+    private final boolean typeMismatch;
+    private final String readStatement;
+    private final String value;
+    private final String writeStatement;
+    private final String patchReadStatement;
+    private final String patchValue;
+    private final String patchCheck;
+    private final String patchStatement;
+
+    public DuhMapFieldModel(
+            final String name,
+            final VariableElement sourceField,
+            final TypeMirror targetType,
+            final boolean ignored,
+            final boolean typeMismatch,
+            final String readStatement,
+            final String value,
+            final String writeStatement,
+            final String patchReadStatement,
+            final String patchValue,
+            final String patchCheck,
+            final String patchStatement
+    ) {
+        this.name = name;
+        this.sourceField = sourceField;
+        this.targetType = targetType;
+        this.ignored = ignored;
+        this.typeMismatch = typeMismatch;
+        this.readStatement = readStatement;
+        this.value = value;
+        this.writeStatement = writeStatement;
+        this.patchReadStatement = patchReadStatement;
+        this.patchValue = patchValue;
+        this.patchCheck = patchCheck;
+        this.patchStatement = patchStatement;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public VariableElement getSourceField() {
+        return sourceField;
+    }
+
+    /**
+     * @return null when the target has no
+     * field of the same name
+     */
+    public TypeMirror getTargetType() {
+        return targetType;
+    }
+
+    public boolean isIgnored() {
+        return ignored;
+    }
+
+    /**
+     * @return true when the source & target
+     * types differ & no nested mapper maps
+     * between them
+     */
+    public boolean isTypeMismatch() {
+        return typeMismatch;
+    }
+
+    /**
+     * @return the statement reading the source once
+     * into its local (see {@link #getSourceLocal()}),
+     * which has to precede the value, or null when
+     * the value reads the source only once
+     */
+    public String getReadStatement() {
+        return readStatement;
+    }
+
+    /**
+     * @return the expression producing the
+     * target's value from {@code source}, null
+     * when the field is ignored
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * @return the statement writing the value
+     * to {@code target}, null when the field is
+     * ignored or the target is only built
+     * through its constructor
+     */
+    public String getWriteStatement() {
+        return writeStatement;
+    }
+
+    // same as the read statement,
+    // but for the patch method
+    public String getPatchReadStatement() {
+        return patchReadStatement;
+    }
+
+    /**
+     * @return the expression held in the patch method's
+     * local (see {@link #getPatchLocal()}), null when the
+     * method doesn't patch or the field is ignored
+     */
+    public String getPatchValue() {
+        return patchValue;
+    }
+
+    /**
+     * @return the condition under which the local is
+     * written to {@code target}, i.e. the target's
+     * current value differs
+     */
+    public String getPatchCheck() {
+        return patchCheck;
+    }
+
+    public String getPatchStatement() {
+        return patchStatement;
+    }
+
+    public String getPatchLocal() {
+        return getPatchLocal(name);
+    }
+
+    // prefixed so it never shadows
+    // the source or target
+    static String getPatchLocal(final String name) {
+        return "new" + capitalize(name);
+    }
+
+    public String getSourceLocal() {
+        return getSourceLocal(name);
+    }
+
+    static String getSourceLocal(final String name) {
+        return "source" + capitalize(name);
+    }
+}
@@ -0,0 +1,62 @@
+package com.noydb.duhmap.model;
+
+import com.noydb.duhmap.annotation.DuhMap;
+
+import javax.lang.model.element.TypeElement;
+import java.util.List;
+
+/**
+ * A @DuhMap interface & everything needed to
+ * both validate it and generate its class,
+ * resolved once per processing round.
+ */
+public final class DuhMapInterfaceModel {
+
+    private final TypeElement interfaceEl;
+    private final DuhMap annotation;
+    private final String packageName;
+    private final List<TypeElement> usedMappers;
+    private final List<DuhMapMethodModel> methods;
+
+    public DuhMapInterfaceModel(
+            final TypeElement interfaceEl,
+            final DuhMap annotation,
+            final String packageName,
+            final List<TypeElement> usedMappers,
+            final List<DuhMapMethodModel> methods
+    ) {
+        this.interfaceEl = interfaceEl;
+        this.annotation = annotation;
+        this.packageName = packageName;
+        this.usedMappers = usedMappers;
+        this.methods = methods;
+    }
+
+    public TypeElement getInterfaceEl() {
+        return interfaceEl;
+    }
+
+    public DuhMap getAnnotation() {
+        return annotation;
+    }
+
+    public String getName() {
+        return interfaceEl.getSimpleName().toString();
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    public String getOutputClassName() {
+        return "Duh" + getName();
+    }
+
+    public List<TypeElement> getUsedMappers() {
+        return usedMappers;
+    }
+
+    public List<DuhMapMethodModel> getMethods() {
+        return methods;
+    }
+}
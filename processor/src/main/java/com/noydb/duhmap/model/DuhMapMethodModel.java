@@ -0,0 +1,163 @@
+package com.noydb.duhmap.model;
+
+import com.noydb.duhmap.annotation.DuhMapMethod;
+import com.noydb.duhmap.kit.DuhMapCollectionType;
+
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A method of a @DuhMap interface with its
+ * source & target classes and field pairs
+ * resolved.
+ */
+public final class DuhMapMethodModel {
+
+    private final ExecutableElement methodEl;
+    private final DuhMapMethod annotation;
+    private final TypeElement sourceClassEl;
+    private final TypeElement targetClassEl;
+    private final boolean ignored;
+    private final boolean constructorMapped;
+    private final Set<DuhMapCollectionType> collectionTypes;
+    private final List<VariableElement> sortedSourceFields;
+    private final List<VariableElement> sortedTargetFields;
+    private final List<DuhMapFieldModel> fields;
+    private final List<String> constructorArguments;
+    private final List<DuhMapCodecFieldModel> codecFields;
+    private final List<DuhMapColumnModel> columns;
+    private final List<String> rowArguments;
+
+    public DuhMapMethodModel(
+            final ExecutableElement methodEl,
+            final DuhMapMethod annotation,
+            final TypeElement sourceClassEl,
+            final TypeElement targetClassEl,
+            final boolean ignored,
+            final boolean constructorMapped,
+            final Set<DuhMapCollectionType> collectionTypes,
+            final List<VariableElement> sortedSourceFields,
+            final List<VariableElement> sortedTargetFields,
+            final List<DuhMapFieldModel> fields,
+            final List<String> constructorArguments,
+            final List<DuhMapCodecFieldModel> codecFields,
+            final List<DuhMapColumnModel> columns,
+            final List<String> rowArguments
+    ) {
+        this.methodEl = methodEl;
+        this.annotation = annotation;
+        this.sourceClassEl = sourceClassEl;
+        this.targetClassEl = targetClassEl;
+        this.ignored = ignored;
+        this.constructorMapped = constructorMapped;
+        this.collectionTypes = collectionTypes;
+        this.sortedSourceFields = sortedSourceFields;
+        this.sortedTargetFields = sortedTargetFields;
+        this.fields = fields;
+        this.constructorArguments = constructorArguments;
+        this.codecFields = codecFields;
+        this.columns = columns;
+        this.rowArguments = rowArguments;
+    }
+
+    public ExecutableElement getMethodEl() {
+        return methodEl;
+    }
+
+    public String getName() {
+        return methodEl.getSimpleName().toString();
+    }
+
+    /**
+     * @return null when the method is
+     * not annotated with @DuhMapMethod
+     */
+    public DuhMapMethod getAnnotation() {
+        return annotation;
+    }
+
+    public TypeElement getSourceClassEl() {
+        return sourceClassEl;
+    }
+
+    public TypeElement getTargetClassEl() {
+        return targetClassEl;
+    }
+
+    public boolean isIgnored() {
+        return ignored;
+    }
+
+    public boolean isConstructorMapped() {
+        return constructorMapped;
+    }
+
+    public Set<DuhMapCollectionType> getCollectionTypes() {
+        return collectionTypes;
+    }
+
+    public List<VariableElement> getSortedSourceFields() {
+        return sortedSourceFields;
+    }
+
+    public List<VariableElement> getSortedTargetFields() {
+        return sortedTargetFields;
+    }
+
+    /**
+     * @return every source field in declaration
+     * order, ignored ones included
+     */
+    public List<DuhMapFieldModel> getFields() {
+        return fields;
+    }
+
+    /**
+     * @return the target constructor's arguments,
+     * null unless the target is constructor mapped
+     */
+    public List<String> getConstructorArguments() {
+        return constructorArguments;
+    }
+
+    /**
+     * @return the target's fields in encoding order
+     * (its constructor's when constructor mapped),
+     * null unless a codec is generated
+     */
+    public List<DuhMapCodecFieldModel> getCodecFields() {
+        return codecFields;
+    }
+
+    /**
+     * @return the mapped fields as columns,
+     * null unless a columnar container is
+     * generated
+     */
+    public List<DuhMapColumnModel> getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return the target constructor's arguments
+     * read from row {@code i} of {@code columns},
+     * null unless both constructor mapped &
+     * columnar
+     */
+    public List<String> getRowArguments() {
+        return rowArguments;
+    }
+
+    public DuhMapFieldModel getField(final String name) {
+        for (final var field : fields) {
+            if (field.getName().equals(name)) {
+                return field;
+            }
+        }
+
+        return null;
+    }
+}
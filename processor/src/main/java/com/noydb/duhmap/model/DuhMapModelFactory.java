@@ -0,0 +1,640 @@
+package com.noydb.duhmap.model;
+
+import com.noydb.duhmap.annotation.DuhMap;
+import com.noydb.duhmap.annotation.DuhMapMethod;
+import com.noydb.duhmap.error.DuhMapException;
+import com.noydb.duhmap.kit.DuhMapCodecs;
+import com.noydb.duhmap.kit.DuhMapProcessorUtils;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import static com.noydb.duhmap.kit.DuhMapConverters.getConverterExpression;
+import static com.noydb.duhmap.kit.DuhMapConverters.getConverters;
+import static com.noydb.duhmap.kit.DuhMapNestedMappers.getNestedMappingExpression;
+import static com.noydb.duhmap.kit.DuhMapPrimitives.getArrayCopy;
+import static com.noydb.duhmap.kit.DuhMapPrimitives.getConversion;
+import static com.noydb.duhmap.kit.DuhMapNestedMappers.getUsedMappers;
+import static com.noydb.duhmap.kit.DuhMapProcessorUtils.asTypeElement;
+import static com.noydb.duhmap.kit.DuhMapProcessorUtils.capitalize;
+import static com.noydb.duhmap.kit.DuhMapProcessorUtils.getCollectionTypes;
+import static com.noydb.duhmap.kit.DuhMapProcessorUtils.getDefaultValue;
+import static com.noydb.duhmap.kit.DuhMapProcessorUtils.getFullyQualifiedName;
+import static com.noydb.duhmap.kit.DuhMapProcessorUtils.getName;
+import static com.noydb.duhmap.kit.DuhMapProcessorUtils.getPackageName;
+import static com.noydb.duhmap.kit.DuhMapProcessorUtils.isConstructorMapped;
+import static com.noydb.duhmap.kit.DuhMapSourceWriter.typeReference;
+
+/**
+ * Builds the models of all @DuhMap interfaces
+ * in a round. The same source & target classes
+ * tend to appear in many methods, so their
+ * fields, members & constructors are only
+ * introspected once per round.
+ */
+public final class DuhMapModelFactory {
+
+    private final ProcessingEnvironment processingEnv;
+    private final Map<TypeElement, List<VariableElement>> fields = new HashMap<>();
+    private final Map<TypeElement, List<VariableElement>> sortedFields = new HashMap<>();
+    private final Map<TypeElement, List<ExecutableElement>> methods = new HashMap<>();
+    private final Map<TypeElement, Map<String, TypeMirror>> constructorProperties = new HashMap<>();
+
+    public DuhMapModelFactory(final ProcessingEnvironment processingEnv) {
+        this.processingEnv = processingEnv;
+    }
+
+    public List<DuhMapInterfaceModel> create(final RoundEnvironment roundEnv) {
+        final var models = new ArrayList<DuhMapInterfaceModel>();
+        for (final Element el : roundEnv.getElementsAnnotatedWith(DuhMap.class)) {
+            models.add(createInterface((TypeElement) el));
+        }
+
+        return models;
+    }
+
+    private DuhMapInterfaceModel createInterface(final TypeElement interfaceEl) {
+        final var annotation = interfaceEl.getAnnotation(DuhMap.class);
+        final var usedMappers = getUsedMappers(processingEnv, interfaceEl);
+        final var converters = getConverters(processingEnv, interfaceEl);
+        final var packageName = getPackageName(interfaceEl);
+        final var ignoredMethods = Arrays.asList(annotation.ignoredMethods());
+
+        final var methodModels = new ArrayList<DuhMapMethodModel>();
+        for (final var methodEl : ElementFilter.methodsIn(interfaceEl.getEnclosedElements())) {
+            methodModels.add(createMethod(interfaceEl, usedMappers, converters, packageName, ignoredMethods, methodEl));
+        }
+
+        return new DuhMapInterfaceModel(interfaceEl, annotation, packageName, usedMappers, methodModels);
+    }
+
+    private DuhMapMethodModel createMethod(
+            final TypeElement interfaceEl,
+            final List<TypeElement> usedMappers,
+            final List<ExecutableElement> converters,
+            final String packageName,
+            final List<String> ignoredMethods,
+            final ExecutableElement methodEl
+    ) {
+        final var annotation = methodEl.getAnnotation(DuhMapMethod.class);
+        final var sourceClassEl = asTypeElement(processingEnv, methodEl.getParameters().get(0).asType());
+        final var targetClassEl = asTypeElement(processingEnv, methodEl.getReturnType());
+        final var ignored = ignoredMethods.contains(getName(methodEl)) || annotation != null && annotation.ignore();
+        final var constructorMapped = isConstructorMapped(targetClassEl, annotation);
+        // mapInto & patch always copy through the
+        // target's fields or setters, even for
+        // constructor mapped targets. patch has
+        // its own statements, checked by the validator
+        final var patch = annotation != null && annotation.patch() && !ignored;
+        final var writes = !constructorMapped || annotation != null && annotation.mapInto();
+        final var ignoredFields = annotation != null
+                ? Arrays.asList(annotation.ignoredFields())
+                : List.<String>of();
+        final var nullDefaults = getNullDefaults(annotation);
+
+        final var fieldModels = new ArrayList<DuhMapFieldModel>();
+        for (final var sourceField : getFields(sourceClassEl)) {
+            final var name = getName(sourceField);
+            final var targetType = getTargetType(targetClassEl, name, constructorMapped);
+            final var fieldIgnored = ignored || ignoredFields.contains(name);
+
+            if (fieldIgnored) {
+                final var typeMismatch = getValue(
+                        interfaceEl, usedMappers, converters, sourceField.asType(), targetType, "", null
+                ) == null;
+                fieldModels.add(new DuhMapFieldModel(
+                        name, sourceField, targetType, true, typeMismatch, null, null, null, null, null, null, null
+                ));
+                continue;
+            }
+
+            final var read = getReadExpression(sourceClassEl, name, packageName);
+            final var nullDefault = nullDefaults.get(name);
+            // built on the source's local first, which is
+            // only kept when the value reads it twice (e.g.
+            // a null check), so getters are called once
+            final var sourceLocal = DuhMapFieldModel.getSourceLocal(name);
+            final var bound = getValue(
+                    interfaceEl, usedMappers, converters, sourceField.asType(), targetType, sourceLocal, nullDefault
+            );
+            final var readTwice = bound != null && isReadTwice(bound, sourceLocal);
+            final var converted = bound == null || readTwice
+                    ? bound
+                    : getValue(interfaceEl, usedMappers, converters, sourceField.asType(), targetType, read, nullDefault);
+            final var readStatement = readTwice ? getReadStatement(sourceLocal, read) : null;
+            // mismatches are reported by the validator,
+            // the plain read keeps javac's error precise
+            final var value = converted != null ? converted : read;
+
+            String patchReadStatement = null;
+            String patchValue = null;
+            String patchCheck = null;
+            String patchStatement = null;
+            if (patch) {
+                final var local = DuhMapFieldModel.getPatchLocal(name);
+                final var skipsNulls = annotation.patchSkipsNulls() && !sourceField.asType().getKind().isPrimitive();
+                // arrays are compared before being
+                // copied, so equal ones aren't copied
+                final var copy = targetType != null ? getArrayCopy(targetType, local) : null;
+                String nullableLocal = null;
+                if (copy != null || value.equals(read)) {
+                    // the patch local holds the read itself
+                    patchValue = read;
+                    nullableLocal = skipsNulls ? local : null;
+                } else if (readTwice || skipsNulls) {
+                    patchReadStatement = getReadStatement(sourceLocal, read);
+                    patchValue = bound;
+                    nullableLocal = skipsNulls ? sourceLocal : null;
+                } else {
+                    patchValue = value;
+                }
+                patchCheck = getPatchCheck(targetClassEl, name, packageName, targetType, local, nullableLocal);
+                // null when the target cannot be written,
+                // which the validator then reports
+                patchStatement = findWriteStatement(targetClassEl, name, packageName, copy != null ? copy : local);
+            }
+
+            fieldModels.add(
+                    new DuhMapFieldModel(
+                            name,
+                            sourceField,
+                            targetType,
+                            false,
+                            converted == null,
+                            readStatement,
+                            value,
+                            writes ? getWriteStatement(targetClassEl, name, packageName, value) : null,
+                            patchReadStatement,
+                            patchValue,
+                            patchCheck,
+                            patchStatement
+                    )
+            );
+        }
+
+        final var constructorArguments = constructorMapped && !ignored
+                ? getConstructorArguments(targetClassEl, fieldModels, DuhMapFieldModel::getValue)
+                : null;
+
+        List<DuhMapColumnModel> columns = null;
+        List<String> rowArguments = null;
+        if (annotation != null && annotation.columns() && !ignored) {
+            columns = new ArrayList<>();
+            for (final var field : fieldModels) {
+                if (field.isIgnored() || field.getTargetType() == null) {
+                    continue;
+                }
+
+                final var row = String.format("columns.%s[i]", field.getName());
+                columns.add(new DuhMapColumnModel(
+                        field.getName(),
+                        field.getTargetType(),
+                        field.getValue(),
+                        constructorMapped ? null : getWriteStatement(targetClassEl, field.getName(), packageName, row)
+                ));
+            }
+
+            if (constructorMapped) {
+                rowArguments = getConstructorArguments(
+                        targetClassEl,
+                        fieldModels,
+                        field -> String.format("columns.%s[i]", field.getName())
+                );
+            }
+        }
+
+        return new DuhMapMethodModel(
+                methodEl,
+                annotation,
+                sourceClassEl,
+                targetClassEl,
+                ignored,
+                constructorMapped,
+                getCollectionTypes(annotation),
+                getSortedFields(sourceClassEl),
+                getSortedFields(targetClassEl),
+                fieldModels,
+                constructorArguments,
+                annotation != null && annotation.codec() && !ignored
+                        ? getCodecFields(targetClassEl, packageName, constructorMapped)
+                        : null,
+                columns,
+                rowArguments
+        );
+    }
+
+    // in the constructor's parameter order,
+    // with the argument of each mapped field
+    private List<String> getConstructorArguments(
+            final TypeElement targetClassEl,
+            final List<DuhMapFieldModel> fieldModels,
+            final Function<DuhMapFieldModel, String> argument
+    ) {
+        final var arguments = new ArrayList<String>();
+        for (final var parameter : getConstructorProperties(targetClassEl).entrySet()) {
+            final var field = fieldModels
+                    .stream()
+                    .filter(fieldModel -> fieldModel.getName().equals(parameter.getKey()))
+                    .findFirst()
+                    .orElse(null);
+            // the source cannot supply it
+            // so the type's default is used
+            if (field == null || field.isIgnored()) {
+                arguments.add(getDefaultValue(parameter.getValue()));
+            } else {
+                arguments.add(argument.apply(field));
+            }
+        }
+
+        return arguments;
+    }
+
+    // the fields of the target itself, so that
+    // it is fully encoded whatever the source
+    private List<DuhMapCodecFieldModel> getCodecFields(
+            final TypeElement targetClassEl,
+            final String packageName,
+            final boolean constructorMapped
+    ) {
+        final var properties = new LinkedHashMap<String, TypeMirror>();
+        if (constructorMapped) {
+            properties.putAll(getConstructorProperties(targetClassEl));
+        } else {
+            getFields(targetClassEl).forEach(field -> properties.put(getName(field), field.asType()));
+        }
+
+        final var codecFields = new ArrayList<DuhMapCodecFieldModel>();
+        for (final var property : properties.entrySet()) {
+            final var name = property.getKey();
+            final var type = property.getValue();
+            if (!DuhMapCodecs.isSupported(processingEnv, type)) {
+                throw new DuhMapException(
+                        String.format(
+                                "The codec of %s cannot encode %s %s, only primitive, boxed & string fields",
+                                getFullyQualifiedName(targetClassEl),
+                                type,
+                                name
+                        )
+                );
+            }
+
+            final var read = findReadExpression(targetClassEl, name, packageName, "value");
+            if (read == null) {
+                throw new DuhMapException(
+                        String.format(
+                                "No accessible field or getter found for %s in %s",
+                                name,
+                                getFullyQualifiedName(targetClassEl)
+                        )
+                );
+            }
+
+            final var decode = DuhMapCodecs.getDecode(processingEnv, type);
+            codecFields.add(new DuhMapCodecFieldModel(
+                    name,
+                    type,
+                    read,
+                    decode,
+                    constructorMapped ? null : getWriteStatement(targetClassEl, name, packageName, decode)
+            ));
+        }
+
+        return codecFields;
+    }
+
+    /**
+     * Resolves the expression producing the target's
+     * value from the read one: the read itself for
+     * identical types (primitive arrays are copied),
+     * a boxing or widening conversion, a call to a
+     * registered converter, or to a nested mapper.
+     *
+     * @return null when nothing maps between the types
+     */
+    private String getValue(
+            final TypeElement interfaceEl,
+            final List<TypeElement> usedMappers,
+            final List<ExecutableElement> converters,
+            final TypeMirror sourceType,
+            final TypeMirror targetType,
+            final String read,
+            final String nullDefault
+    ) {
+        if (targetType == null) {
+            return read;
+        }
+
+        if (processingEnv.getTypeUtils().isSameType(sourceType, targetType)) {
+            final var copy = getArrayCopy(targetType, read);
+            return copy != null ? copy : read;
+        }
+
+        final var conversion = getConversion(processingEnv, sourceType, targetType, read, nullDefault);
+        if (conversion != null) {
+            return conversion;
+        }
+
+        final var converted = getConverterExpression(processingEnv, converters, sourceType, targetType, read, nullDefault);
+        if (converted != null) {
+            return converted;
+        }
+
+        return getNestedMappingExpression(processingEnv, interfaceEl, usedMappers, sourceType, targetType, read);
+    }
+
+    /**
+     * Compares the target's current value with the new
+     * one: by value for primitives, {@code Arrays.equals}
+     * for arrays & {@code Objects.equals} otherwise. A
+     * target without a readable value is always written.
+     *
+     * @param nullableLocal the local holding the source's
+     *                      read when null sources are
+     *                      skipped, else null
+     */
+    private String getPatchCheck(
+            final TypeElement targetClassEl,
+            final String fieldName,
+            final String packageName,
+            final TypeMirror targetType,
+            final String local,
+            final String nullableLocal
+    ) {
+        final var current = findReadExpression(targetClassEl, fieldName, packageName, "target");
+        final String check;
+        if (current == null || targetType == null) {
+            check = "true";
+        } else if (targetType.getKind() == TypeKind.FLOAT || targetType.getKind() == TypeKind.DOUBLE) {
+            check = String.format(
+                    "%s.compare(%s, %s) != 0",
+                    targetType.getKind() == TypeKind.FLOAT ? "Float" : "Double",
+                    current,
+                    local
+            );
+        } else if (targetType.getKind().isPrimitive()) {
+            check = String.format("%s != %s", current, local);
+        } else if (targetType.getKind() == TypeKind.ARRAY) {
+            check = String.format("!%s.equals(%s, %s)", typeReference("java.util.Arrays"), current, local);
+        } else {
+            check = String.format("!%s.equals(%s, %s)", typeReference("java.util.Objects"), current, local);
+        }
+
+        if (nullableLocal == null) {
+            return check;
+        }
+
+        return current == null || targetType == null
+                ? nullableLocal + " != null"
+                : String.format("%s != null && %s", nullableLocal, check);
+    }
+
+    private static String getReadStatement(final String local, final String read) {
+        return String.format("final var %s = %s;", local, read);
+    }
+
+    // e.g. "sourceX == null ? null : f(sourceX)"
+    private static boolean isReadTwice(final String value, final String local) {
+        final var matcher = Pattern.compile("\\b" + Pattern.quote(local) + "\\b").matcher(value);
+
+        return matcher.find() && matcher.find();
+    }
+
+    // "field=value" pairs, already
+    // checked by the validator
+    private static Map<String, String> getNullDefaults(final DuhMapMethod annotation) {
+        final var nullDefaults = new HashMap<String, String>();
+        if (annotation == null) {
+            return nullDefaults;
+        }
+
+        for (final var nullDefault : annotation.nullDefaults()) {
+            final var separator = nullDefault.indexOf('=');
+            nullDefaults.put(nullDefault.substring(0, separator).trim(), nullDefault.substring(separator + 1).trim());
+        }
+
+        return nullDefaults;
+    }
+
+    private TypeMirror getTargetType(
+            final TypeElement targetClassEl,
+            final String fieldName,
+            final boolean constructorMapped
+    ) {
+        final var targetField = findField(targetClassEl, fieldName);
+        if (targetField != null) {
+            return targetField.asType();
+        }
+
+        return constructorMapped ? getConstructorProperties(targetClassEl).get(fieldName) : null;
+    }
+
+    /**
+     * Resolves how the generated class (in the given
+     * package) reads a field of the source: directly
+     * when the field is visible from that package,
+     * otherwise through its real accessor, i.e.
+     * {@code getX()}, {@code isX()} for booleans or a
+     * record style {@code x()}.
+     */
+    private String getReadExpression(
+            final TypeElement sourceClassEl,
+            final String fieldName,
+            final String packageName
+    ) {
+        final var read = findReadExpression(sourceClassEl, fieldName, packageName, "source");
+        if (read == null) {
+            throw new DuhMapException(
+                    String.format(
+                            "No accessible field or getter found for %s in %s",
+                            fieldName,
+                            getFullyQualifiedName(sourceClassEl)
+                    )
+            );
+        }
+
+        return read;
+    }
+
+    // null when neither the field
+    // nor a getter is accessible
+    private String findReadExpression(
+            final TypeElement classEl,
+            final String fieldName,
+            final String packageName,
+            final String variable
+    ) {
+        final var field = findField(classEl, fieldName);
+        if (field != null && isAccessible(field, packageName)) {
+            return String.format("%s.%s", variable, fieldName);
+        }
+
+        final var getter = findGetter(classEl, fieldName, packageName);
+
+        return getter != null ? String.format("%s.%s()", variable, getName(getter)) : null;
+    }
+
+    /**
+     * Same as {@link #getReadExpression} but for the
+     * target: final fields are never written directly,
+     * and {@code setX(..)} is preferred over a fluent
+     * {@code x(..)}.
+     */
+    private String getWriteStatement(
+            final TypeElement targetClassEl,
+            final String fieldName,
+            final String packageName,
+            final String value
+    ) {
+        final var statement = findWriteStatement(targetClassEl, fieldName, packageName, value);
+        if (statement == null) {
+            throw new DuhMapException(
+                    String.format(
+                            "No accessible field or setter found for %s in %s",
+                            fieldName,
+                            getFullyQualifiedName(targetClassEl)
+                    )
+            );
+        }
+
+        return statement;
+    }
+
+    private String findWriteStatement(
+            final TypeElement targetClassEl,
+            final String fieldName,
+            final String packageName,
+            final String value
+    ) {
+        final var field = findField(targetClassEl, fieldName);
+        if (field != null
+                && !field.getModifiers().contains(Modifier.FINAL)
+                && isAccessible(field, packageName)) {
+            return String.format("target.%s = %s;", fieldName, value);
+        }
+
+        final var setter = findSetter(targetClassEl, fieldName, packageName);
+
+        return setter != null ? String.format("target.%s(%s);", getName(setter), value) : null;
+    }
+
+    private ExecutableElement findGetter(
+            final TypeElement classEl,
+            final String fieldName,
+            final String packageName
+    ) {
+        final var capitalized = capitalize(fieldName);
+        for (final var name : List.of("get" + capitalized, "is" + capitalized, fieldName)) {
+            for (final var method : getMethods(classEl)) {
+                if (!getName(method).equals(name)
+                        || !method.getParameters().isEmpty()
+                        || method.getReturnType().getKind() == TypeKind.VOID
+                        || !isAccessible(method, packageName)) {
+                    continue;
+                }
+
+                if (name.startsWith("is") && !name.equals(fieldName) && !isBoolean(method.getReturnType())) {
+                    continue;
+                }
+
+                return method;
+            }
+        }
+
+        return null;
+    }
+
+    private ExecutableElement findSetter(
+            final TypeElement classEl,
+            final String fieldName,
+            final String packageName
+    ) {
+        for (final var name : List.of("set" + capitalize(fieldName), fieldName)) {
+            for (final var method : getMethods(classEl)) {
+                if (getName(method).equals(name)
+                        && method.getParameters().size() == 1
+                        && isAccessible(method, packageName)) {
+                    return method;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private VariableElement findField(final TypeElement classEl, final String fieldName) {
+        for (final var field : getFields(classEl)) {
+            if (getName(field).equals(fieldName)) {
+                return field;
+            }
+        }
+
+        return null;
+    }
+
+    private List<VariableElement> getFields(final TypeElement classEl) {
+        return fields.computeIfAbsent(classEl, DuhMapProcessorUtils::getFields);
+    }
+
+    private List<VariableElement> getSortedFields(final TypeElement classEl) {
+        return sortedFields.computeIfAbsent(
+                classEl,
+                el -> getFields(el)
+                        .stream()
+                        .sorted(Comparator.comparing(DuhMapProcessorUtils::getName))
+                        .toList()
+        );
+    }
+
+    // includes inherited methods, so accessors
+    // declared on a superclass are found too
+    private List<ExecutableElement> getMethods(final TypeElement classEl) {
+        return methods.computeIfAbsent(
+                classEl,
+                el -> ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(el))
+                        .stream()
+                        .filter(method -> !method.getModifiers().contains(Modifier.STATIC))
+                        .toList()
+        );
+    }
+
+    private Map<String, TypeMirror> getConstructorProperties(final TypeElement classEl) {
+        return constructorProperties.computeIfAbsent(classEl, DuhMapProcessorUtils::getConstructorProperties);
+    }
+
+    // protected members are only visible to the
+    // generated class through the package, as it
+    // never extends the source or target
+    private boolean isAccessible(final Element el, final String packageName) {
+        final var modifiers = el.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE)) {
+            return false;
+        }
+
+        if (modifiers.contains(Modifier.PUBLIC)) {
+            return true;
+        }
+
+        return processingEnv.getElementUtils().getPackageOf(el).getQualifiedName().contentEquals(packageName);
+    }
+
+    private static boolean isBoolean(final TypeMirror type) {
+        return type.getKind() == TypeKind.BOOLEAN || type.toString().equals("java.lang.Boolean");
+    }
+}
@@ -0,0 +1,24 @@
+package com.noydb.duhmap.runner;
+
+public class Course {
+
+    String code;
+    boolean active;
+
+    public Course(String code, boolean active) {
+        this.code = code;
+        this.active = active;
+    }
+
+    public Course() {
+
+    }
+
+    @Override
+    public String toString() {
+        return "Course{" +
+                "code='" + code + '\'' +
+                ", active=" + active +
+                '}';
+    }
+}
@@ -0,0 +1,31 @@
+package com.noydb.duhmap.runner;
+
+public class CourseDTO {
+
+    private String code;
+    private boolean active;
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    @Override
+    public String toString() {
+        return "CourseDTO{" +
+                "code='" + code + '\'' +
+                ", active=" + active +
+                '}';
+    }
+}
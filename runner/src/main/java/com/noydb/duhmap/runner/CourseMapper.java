@@ -0,0 +1,15 @@
+package com.noydb.duhmap.runner;
+
+import com.noydb.duhmap.annotation.DuhMap;
+import com.noydb.duhmap.annotation.DuhMapMethod;
+import com.noydb.duhmap.kit.DuhMapClassType;
+
+@DuhMap(strictChecks = true, beanType = DuhMapClassType.STATIC)
+public interface CourseMapper {
+
+    @DuhMapMethod(mapList = true)
+    CourseDTO mapTo(Course course);
+
+    Course mapFrom(CourseDTO dto);
+
+}
@@ -0,0 +1,35 @@
+package com.noydb.duhmap.runner;
+
+import java.util.List;
+
+public class Enrollment {
+
+    private Student student;
+    private List<Course> courses;
+
+    public Enrollment(Student student, List<Course> courses) {
+        this.student = student;
+        this.courses = courses;
+    }
+
+    public Enrollment() {
+
+    }
+
+    public Student getStudent() {
+        return student;
+    }
+
+    public void setStudent(Student student) {
+        this.student = student;
+    }
+
+    public List<Course> getCourses() {
+        return courses;
+    }
+
+    public void setCourses(List<Course> courses) {
+        this.courses = courses;
+    }
+
+}
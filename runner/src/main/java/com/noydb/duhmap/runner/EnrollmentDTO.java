@@ -0,0 +1,33 @@
+package com.noydb.duhmap.runner;
+
+import java.util.List;
+
+public class EnrollmentDTO {
+
+    private StudentDTO student;
+    private List<CourseDTO> courses;
+
+    public StudentDTO getStudent() {
+        return student;
+    }
+
+    public void setStudent(StudentDTO student) {
+        this.student = student;
+    }
+
+    public List<CourseDTO> getCourses() {
+        return courses;
+    }
+
+    public void setCourses(List<CourseDTO> courses) {
+        this.courses = courses;
+    }
+
+    @Override
+    public String toString() {
+        return "EnrollmentDTO{" +
+                "student=" + student +
+                ", courses=" + courses +
+                '}';
+    }
+}
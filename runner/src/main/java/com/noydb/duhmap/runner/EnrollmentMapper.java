@@ -0,0 +1,10 @@
+package com.noydb.duhmap.runner;
+
+import com.noydb.duhmap.annotation.DuhMap;
+
+@DuhMap(strictChecks = true, uses = {StudentMapper.class, CourseMapper.class})
+public interface EnrollmentMapper {
+
+    EnrollmentDTO mapTo(Enrollment enrollment);
+
+}
@@ -1,7 +1,16 @@
 package com.noydb.duhmap.runner;
 
+import com.noydb.duhmap.metrics.DuhMapMetrics;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
 
 public class LittleTest {
 
@@ -24,5 +33,105 @@ public class LittleTest {
         for (StudentDTO dto : dtos) {
             System.out.println(dto + "\n");
         }
+
+        for (StudentDTO dto : mapper.mapFromParallel(students)) {
+            System.out.println(dto + "\n");
+        }
+
+        // chunks of two, on virtual threads when available
+        System.out.println(mapper.mapFromAsync(students).join() + "\n");
+
+        // mapped as they are published, one at a time as requested
+        final var publisher = new SubmissionPublisher<Student>();
+        final var published = new CompletableFuture<Void>();
+        mapper.mapFrom(publisher).subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(final Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(final StudentDTO dto) {
+                System.out.println("published " + dto);
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                published.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                published.complete(null);
+            }
+        });
+        students.forEach(publisher::submit);
+        publisher.close();
+        published.join();
+        System.out.println();
+
+        // never more than three mapped at once
+        mapper.mapFrom(students, 3, chunk -> System.out.println("chunk " + chunk));
+        System.out.println();
+
+        final var enrollment = new Enrollment(student, List.of(new Course("CS101", true), new Course("MA201", false)));
+        System.out.println(new DuhEnrollmentMapper().mapTo(enrollment) + "\n");
+
+        // null children are left null, never passed to the used mapper
+        System.out.println(new DuhEnrollmentMapper().mapTo(new Enrollment(null, null)) + "\n");
+
+        // static mappers are called without an instance
+        System.out.println(DuhCourseMapper.mapTo(new Course("PH301", true)) + "\n");
+
+        // keeps the tree's order, keys can be remapped
+        final var byAge = new TreeMap<Integer, Student>();
+        students.forEach(s -> byAge.put(s.getAge(), s));
+        System.out.println(mapper.mapFrom(byAge) + "\n");
+        System.out.println(mapper.mapFrom(byAge, age -> "age-" + age) + "\n");
+
+        // unboxed, widened & copied without boxing
+        final var readingMapper = new DuhReadingMapper();
+        System.out.println(readingMapper.mapTo(new Reading(7, 3, 1700000000000L, new int[]{1, 2, 3})) + "\n");
+        System.out.println(readingMapper.mapTo(new Reading(null, 3, 1700000000000L, null)) + "\n");
+
+        // only writes the differing fields, null sources are skipped
+        final var reading = readingMapper.mapTo(new Reading(7, 3, 1700000000000L, new int[]{1, 2, 3}));
+        System.out.println(readingMapper.patchMapTo(new Reading(7, 3, 1700000000000L, new int[]{1, 2, 3}), reading));
+        System.out.println(readingMapper.patchMapTo(new Reading(null, 4, 1700000000000L, null), reading));
+        System.out.println(reading + "\n");
+
+        // one array per field, the primitives unboxed
+        final var columns = readingMapper.mapToColumns(List.of(
+                new Reading(7, 3, 1700000000000L, new int[]{1, 2, 3}),
+                new Reading(null, 5, 1700000000001L, null)
+        ));
+        System.out.println(Arrays.stream(columns.level).sum() + " " + readingMapper.mapToRows(columns) + "\n");
+
+        // converted through TicketConverters, without any reflection
+        final var ticketMapper = new DuhTicketMapper();
+        final var ticket = ticketMapper.mapTo(new Ticket("3f2b8c1e-5d4a-4e7b-9c6d-1a2b3c4d5e6f", Instant.ofEpochSecond(1700000000), Priority.HIGH));
+        System.out.println(ticket + " " + ticketMapper.mapFrom(ticket));
+        System.out.println(ticketMapper.mapTo(new Ticket(null, null, null)) + "\n");
+
+        // only copies the requested fields
+        System.out.println(mapper.mapFrom(student, DuhStudentMapper.MapFromFields.FIRST_NAME | DuhStudentMapper.MapFromFields.AGE) + "\n");
+
+        // a flat binary round trip, presized exactly
+        final var buffer = ByteBuffer.allocate(mapper.getStudentDTOSize(dtos.get(0)));
+        mapper.encodeStudentDTO(dtos.get(0), buffer);
+        System.out.println(mapper.decodeStudentDTO(buffer.flip()) + "\n");
+
+        // refills the existing instances in place
+        mapper.mapFrom(students.subList(2, 4), dtos);
+        for (StudentDTO dto : dtos) {
+            System.out.println(dto + "\n");
+        }
+
+        // the student mapper counts every call
+        DuhMapMetrics.getAll().forEach(System.out::println);
     }
 }
@@ -0,0 +1,6 @@
+package com.noydb.duhmap.runner;
+
+public enum Priority {
+    LOW,
+    HIGH
+}
@@ -0,0 +1,64 @@
+package com.noydb.duhmap.runner;
+
+import java.util.Arrays;
+
+public class Reading {
+
+    private Integer count;
+    private int level;
+    private long timestamp;
+    private int[] samples;
+
+    public Reading(Integer count, int level, long timestamp, int[] samples) {
+        this.count = count;
+        this.level = level;
+        this.timestamp = timestamp;
+        this.samples = samples;
+    }
+
+    public Reading() {
+
+    }
+
+    public Integer getCount() {
+        return count;
+    }
+
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public void setLevel(int level) {
+        this.level = level;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public int[] getSamples() {
+        return samples;
+    }
+
+    public void setSamples(int[] samples) {
+        this.samples = samples;
+    }
+
+    @Override
+    public String toString() {
+        return "Reading{" +
+                "count=" + count +
+                ", level=" + level +
+                ", timestamp=" + timestamp +
+                ", samples=" + Arrays.toString(samples) +
+                '}';
+    }
+}
@@ -0,0 +1,53 @@
+package com.noydb.duhmap.runner;
+
+import java.util.Arrays;
+
+public class ReadingDTO {
+
+    private int count;
+    private double level;
+    private Long timestamp;
+    private int[] samples;
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public double getLevel() {
+        return level;
+    }
+
+    public void setLevel(double level) {
+        this.level = level;
+    }
+
+    public Long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public int[] getSamples() {
+        return samples;
+    }
+
+    public void setSamples(int[] samples) {
+        this.samples = samples;
+    }
+
+    @Override
+    public String toString() {
+        return "ReadingDTO{" +
+                "count=" + count +
+                ", level=" + level +
+                ", timestamp=" + timestamp +
+                ", samples=" + Arrays.toString(samples) +
+                '}';
+    }
+}
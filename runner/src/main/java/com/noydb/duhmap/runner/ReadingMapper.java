@@ -0,0 +1,12 @@
+package com.noydb.duhmap.runner;
+
+import com.noydb.duhmap.annotation.DuhMap;
+import com.noydb.duhmap.annotation.DuhMapMethod;
+
+@DuhMap(strictChecks = true)
+public interface ReadingMapper {
+
+    @DuhMapMethod(nullDefaults = "count=-1", patch = true, patchSkipsNulls = true, columns = true)
+    ReadingDTO mapTo(Reading reading);
+
+}
@@ -4,13 +4,37 @@ import com.noydb.duhmap.annotation.DuhMap;
 import com.noydb.duhmap.annotation.DuhMapMethod;
 import com.noydb.duhmap.kit.DuhMapStrictRule;
 
-@DuhMap(strictChecks = true, ignoredStrictChecks = {DuhMapStrictRule.MISMATCHED_FIELD_COUNT})
+import static com.noydb.duhmap.kit.DuhMapCollectionType.ARRAY;
+import static com.noydb.duhmap.kit.DuhMapCollectionType.CHUNKS;
+import static com.noydb.duhmap.kit.DuhMapCollectionType.COLLECTION;
+import static com.noydb.duhmap.kit.DuhMapCollectionType.ITERABLE;
+import static com.noydb.duhmap.kit.DuhMapCollectionType.ITERATOR;
+import static com.noydb.duhmap.kit.DuhMapCollectionType.LIST;
+import static com.noydb.duhmap.kit.DuhMapCollectionType.PUBLISHER;
+import static com.noydb.duhmap.kit.DuhMapCollectionType.SET;
+import static com.noydb.duhmap.kit.DuhMapCollectionType.STREAM;
+
+@DuhMap(
+        strictChecks = true,
+        ignoredStrictChecks = {DuhMapStrictRule.MISMATCHED_FIELD_COUNT},
+        metrics = true,
+        events = true
+)
 public interface StudentMapper {
 
-    @DuhMapMethod(mapList = true)
+    @DuhMapMethod(collections = {LIST, SET, COLLECTION, ITERABLE, ARRAY}, useConstructor = true, codec = true, columns = true)
     Student mapTo(StudentDTO dto);
 
-    @DuhMapMethod(mapList = true)
+    @DuhMapMethod(
+            mapList = true,
+            mapMap = true,
+            collections = {STREAM, ITERATOR, PUBLISHER, CHUNKS},
+            parallelThreshold = 2,
+            asyncChunkSize = 2,
+            mapInto = true,
+            projection = true,
+            codec = true
+    )
     StudentDTO mapFrom(Student student);
 
 }
@@ -0,0 +1,4 @@
+package com.noydb.duhmap.runner;
+
+public record StudentRecord(String firstName, String lastName, int age) {
+}
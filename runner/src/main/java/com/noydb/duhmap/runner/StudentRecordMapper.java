@@ -0,0 +1,14 @@
+package com.noydb.duhmap.runner;
+
+import com.noydb.duhmap.annotation.DuhMap;
+import com.noydb.duhmap.annotation.DuhMapMethod;
+
+@DuhMap(strictChecks = true)
+public interface StudentRecordMapper {
+
+    @DuhMapMethod(mapList = true)
+    StudentRecord mapTo(Student student);
+
+    StudentDTO mapFrom(StudentRecord record);
+
+}
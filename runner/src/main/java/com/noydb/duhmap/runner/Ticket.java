@@ -0,0 +1,53 @@
+package com.noydb.duhmap.runner;
+
+import java.time.Instant;
+
+public class Ticket {
+
+    private String id;
+    private Instant issuedAt;
+    private Priority priority;
+
+    public Ticket(String id, Instant issuedAt, Priority priority) {
+        this.id = id;
+        this.issuedAt = issuedAt;
+        this.priority = priority;
+    }
+
+    public Ticket() {
+
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    public void setIssuedAt(Instant issuedAt) {
+        this.issuedAt = issuedAt;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Priority priority) {
+        this.priority = priority;
+    }
+
+    @Override
+    public String toString() {
+        return "Ticket{" +
+                "id='" + id + '\'' +
+                ", issuedAt=" + issuedAt +
+                ", priority=" + priority +
+                '}';
+    }
+}
@@ -0,0 +1,35 @@
+package com.noydb.duhmap.runner;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public final class TicketConverters {
+
+    private TicketConverters() {
+        // do not instantiate
+    }
+
+    public static UUID toUuid(String id) {
+        return UUID.fromString(id);
+    }
+
+    public static String toString(UUID id) {
+        return id.toString();
+    }
+
+    public static long toEpochMilli(Instant instant) {
+        return instant.toEpochMilli();
+    }
+
+    public static Instant toInstant(long epochMilli) {
+        return Instant.ofEpochMilli(epochMilli);
+    }
+
+    public static String toString(Priority priority) {
+        return priority.name();
+    }
+
+    public static Priority toPriority(String priority) {
+        return Priority.valueOf(priority);
+    }
+}
@@ -0,0 +1,43 @@
+package com.noydb.duhmap.runner;
+
+import java.util.UUID;
+
+public class TicketDTO {
+
+    private UUID id;
+    private long issuedAt;
+    private String priority;
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public long getIssuedAt() {
+        return issuedAt;
+    }
+
+    public void setIssuedAt(long issuedAt) {
+        this.issuedAt = issuedAt;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public void setPriority(String priority) {
+        this.priority = priority;
+    }
+
+    @Override
+    public String toString() {
+        return "TicketDTO{" +
+                "id=" + id +
+                ", issuedAt=" + issuedAt +
+                ", priority='" + priority + '\'' +
+                '}';
+    }
+}
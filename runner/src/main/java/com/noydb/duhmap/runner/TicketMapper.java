@@ -0,0 +1,12 @@
+package com.noydb.duhmap.runner;
+
+import com.noydb.duhmap.annotation.DuhMap;
+
+@DuhMap(strictChecks = true, converters = TicketConverters.class)
+public interface TicketMapper {
+
+    TicketDTO mapTo(Ticket ticket);
+
+    Ticket mapFrom(TicketDTO dto);
+
+}